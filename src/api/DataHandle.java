@@ -0,0 +1,52 @@
+package api;
+
+import java.io.Serializable;
+import java.rmi.RemoteException;
+import java.util.UUID;
+
+import system.Computer;
+
+/**
+ * Represents a reference to immutable data registered with the
+ * {@link api.Space Space} for a job. The handle is all that travels with a
+ * {@link api.Task Task}; the data itself is sent once to every Computer and
+ * resolved from the Computer's local copy.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+public class DataHandle<T> implements Serializable {
+	private static final long serialVersionUID = 4470195328226413377L;
+	private UUID dataID;
+
+	/**
+	 *
+	 * @param dataID
+	 *            Represents the unique ID under which the data is registered
+	 */
+	public DataHandle(UUID dataID) {
+		this.dataID = dataID;
+	}
+
+	/**
+	 * Gets the unique ID under which the data is registered
+	 *
+	 * @return Returns the unique ID of the data
+	 */
+	public UUID getDataID() {
+		return dataID;
+	}
+
+	/**
+	 * Resolves the handle to the copy of the data held by a Computer
+	 *
+	 * @param computer
+	 *            Represents the Compute Engine in which the task is executing
+	 * @return Returns the data the handle refers to
+	 * @throws RemoteException
+	 */
+	@SuppressWarnings("unchecked")
+	public T resolve(Computer computer) throws RemoteException {
+		return (T) computer.getJobData(dataID);
+	}
+}
@@ -0,0 +1,27 @@
+package api;
+
+/**
+ * Models a {@link api.SuccessorTask successor} which folds each
+ * {@link api.Result Result} into an accumulator as it arrives, rather than
+ * holding on to every result until the last one arrives. Peak memory and the
+ * work left for {@link api.Task#composeResult() composeResult} then depend on
+ * the accumulator, not on the total size of the results.
+ * 
+ * @author Vijayaraghavan Subbaiah
+ * 
+ */
+
+public interface IncrementalSuccessorTask<T> extends SuccessorTask<T> {
+
+	/**
+	 * Folds an arriving result into the accumulator of the successor. Results
+	 * may arrive on different threads, so implementations must be safe to call
+	 * concurrently. Every call completes before the successor is reported
+	 * ready for composition.
+	 * 
+	 * @param partialResult
+	 *            Represents the arriving {@link api.Result} object, which may
+	 *            be null or carry a null value for a pruned child
+	 */
+	void combine(Result<?> partialResult);
+}
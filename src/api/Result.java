@@ -1,5 +1,7 @@
 package api;
 
+import system.Shared;
+
 /**
  * Represents the results of the tasks({@link api.Task Task}) executed on a
  * registered remote {@link system.Computer Computer}
@@ -19,4 +21,23 @@ public interface Result<T> extends java.io.Serializable {
 
 	T getTaskReturnValue();
 
+	/**
+	 * Gets the Shared value of the job when the result of the whole job was
+	 * produced
+	 * 
+	 * @return Returns the last Shared value of the job for the result of a
+	 *         job taken from the {@link api.Space Space}, and null for the
+	 *         result of a single task or a job which shares nothing
+	 */
+	Shared<?> getShared();
+
+	/**
+	 * Gets the time it took the job to reach its last Shared value
+	 * 
+	 * @return Returns the milliseconds from the submission of the job to the
+	 *         last improvement of its Shared value, or -1 if the value the job
+	 *         was submitted with was never improved
+	 */
+	long getSharedMillis();
+
 }
\ No newline at end of file
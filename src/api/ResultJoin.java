@@ -0,0 +1,98 @@
+package api;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Collects the {@link api.Result results} a {@link api.SuccessorTask successor}
+ * is waiting for into a preallocated array with one slot per child task. An
+ * arriving result claims the next free slot, is stored without any locking and
+ * then counts the join down; the arrival which brings the count to zero is the
+ * only one told that the join is complete, and it is guaranteed to see every
+ * stored result. A join created for an {@link api.IncrementalSuccessorTask
+ * IncrementalSuccessorTask} stores nothing and folds each result into the
+ * successor instead.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+public class ResultJoin implements Serializable {
+	private static final long serialVersionUID = 6123584715470260981L;
+	private AtomicReferenceArray<Result<?>> slots;
+	private AtomicInteger nextSlot;
+	private AtomicInteger pending;
+	private IncrementalSuccessorTask<?> accumulator;
+
+	/**
+	 *
+	 * @param arity
+	 *            Represents the number of results the join waits for
+	 */
+	public ResultJoin(int arity) {
+		slots = new AtomicReferenceArray<Result<?>>(arity);
+		nextSlot = new AtomicInteger();
+		pending = new AtomicInteger(arity);
+	}
+
+	/**
+	 *
+	 * @param arity
+	 *            Represents the number of results the join waits for
+	 * @param accumulator
+	 *            Represents the successor into which each arriving result is
+	 *            folded
+	 */
+	public ResultJoin(int arity, IncrementalSuccessorTask<?> accumulator) {
+		slots = new AtomicReferenceArray<Result<?>>(0);
+		pending = new AtomicInteger(arity);
+		this.accumulator = accumulator;
+	}
+
+	/**
+	 * Stores an arriving result and counts the join down
+	 *
+	 * @param result
+	 *            Represents the arriving result, which may be null for a
+	 *            pruned child
+	 * @return Returns true if this was the last result the join was waiting
+	 *         for
+	 */
+	public boolean arrive(Result<?> result) {
+		if (accumulator != null) {
+			accumulator.combine(result);
+		} else {
+			slots.set(nextSlot.getAndIncrement(), result);
+		}
+		return pending.decrementAndGet() == 0;
+	}
+
+	/**
+	 * Represents number of results the join is still waiting for
+	 *
+	 * @return Returns the number of results yet to arrive
+	 */
+	public int getPending() {
+		return pending.get();
+	}
+
+	/**
+	 * Gets the number of slots of the join
+	 *
+	 * @return Returns the number of results stored by the join, which is zero
+	 *         for a join folding into an accumulator
+	 */
+	public int size() {
+		return slots.length();
+	}
+
+	/**
+	 * Gets the result stored in a slot
+	 *
+	 * @param slot
+	 *            Represents the index of the slot
+	 * @return Returns the result stored in the slot
+	 */
+	public Result<?> get(int slot) {
+		return slots.get(slot);
+	}
+}
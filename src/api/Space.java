@@ -1,7 +1,9 @@
 package api;
 
+import java.io.Serializable;
 import java.rmi.RemoteException;
 import java.rmi.registry.Registry;
+import java.util.UUID;
 
 import system.Shared;
 
@@ -85,6 +87,76 @@ public interface Space extends java.rmi.Remote {
 	 */
 	Result<?> compute(Task<?> task, Shared<?> shared) throws RemoteException;
 
+	/**
+	 * Submits a {@link api.Task Task} as a new job without waiting for its
+	 * result. Jobs run concurrently, each with its own Shared object and its
+	 * own result queue, and are given a fair share of the registered
+	 * {@link system.Computer Computers}.
+	 * 
+	 * @param task
+	 *            Task to be added to the Compute Space
+	 * @param shared
+	 *            Shared object to be used to broadcast messages across workers
+	 *            in the compute space for this job, or null if the job shares
+	 *            nothing
+	 * @return Returns the unique identifier of the job
+	 * @throws RemoteException
+	 */
+	UUID submit(Task<?> task, Shared<?> shared) throws RemoteException;
+
+	/**
+	 * Retrieves the {@link api.Result Result} of a job submitted via
+	 * {@link #submit(Task, Shared) submit}. This method blocks until the
+	 * result is available, after which the job is discarded by the Space.
+	 * 
+	 * @param jobID
+	 *            Represents the unique identifier of the job
+	 * @return Returns the result of the job, or null if the wait was
+	 *         interrupted, in which case the job is kept
+	 * @throws RemoteException
+	 * @throws IllegalArgumentException
+	 *             Throws IllegalArgumentException when the job is unknown or
+	 *             its result has already been taken
+	 */
+	Result<?> take(UUID jobID) throws RemoteException;
+
+	/**
+	 * Sets the share of the registered {@link system.Computer Computers} a job
+	 * receives relative to the other running jobs. Every job starts with a
+	 * weight of 1.
+	 * 
+	 * @param jobID
+	 *            Represents the unique identifier of the job
+	 * @param weight
+	 *            Represents the relative share of the job
+	 * @throws RemoteException
+	 */
+	void setJobWeight(UUID jobID, int weight) throws RemoteException;
+
+	/**
+	 * Registers large immutable data shared by the tasks of a job, such as a
+	 * distance matrix. The data is sent once to every registered
+	 * {@link system.Computer Computer}, and to Computers registering later, so
+	 * that tasks only need to carry the returned handle.
+	 * 
+	 * @param data
+	 *            Represents the data to be shared
+	 * @return Returns the handle through which tasks resolve the data
+	 * @throws RemoteException
+	 */
+	<T extends Serializable> DataHandle<T> putJobData(T data)
+			throws RemoteException;
+
+	/**
+	 * Discards data registered with {@link #putJobData(Serializable)} from the
+	 * Space and every registered {@link system.Computer Computer}
+	 * 
+	 * @param handle
+	 *            Represents the handle of the data
+	 * @throws RemoteException
+	 */
+	void removeJobData(DataHandle<?> handle) throws RemoteException;
+
 	/**
 	 * Sets the local registry where the space is instantiated
 	 * 
@@ -28,6 +28,8 @@ public interface SuccessorTask<T> extends Task<T> {
 	 * 
 	 * @param args
 	 *            Represents the {@link api.Result} object.
+	 * @return Returns this successor if args was the last result it was
+	 *         waiting for, and null otherwise
 	 */
-	void putArguments(Result<?> args);
+	SuccessorTask<T> putArguments(Result<?> args);
 }
@@ -129,4 +129,13 @@ public interface Task<T> {
 	 *         identified.
 	 */
 	public UUID getTaskID();
+
+	/**
+	 * Represents the unique identifier of the job this task belongs to. Every
+	 * task generated while solving a job carries the ID of that job, so that
+	 * the {@link api.Space Space} can run several jobs at once.
+	 * 
+	 * @return Returns the unique identifier of the job of this task
+	 */
+	public UUID getJobID();
 }
@@ -1,5 +1,6 @@
 package api;
 
+import java.io.Serializable;
 import java.rmi.RemoteException;
 import java.util.LinkedList;
 import java.util.UUID;
@@ -12,7 +13,10 @@ import system.Shared;
  * 
  * @author Vijayaraghavan Subbaiah
  */
-public abstract class TaskImpl<T> implements Task<T> {
+public abstract class TaskImpl<T> implements Task<T>, Serializable {
+	private static final long serialVersionUID = -6215431879208547129L;
+	private UUID jobID;
+
 	/**
 	 * Gets the Shared upper Bound value which is then used for bounding or
 	 * branching a subtree
@@ -57,6 +61,18 @@ public abstract class TaskImpl<T> implements Task<T> {
 		return null;
 	}
 
+	/**
+	 * Validates whether the subtree of the task can be discarded, because its
+	 * lower bound can no longer improve on the given upper bound
+	 * 
+	 * @param shared
+	 *            Represents the current Shared upper bound of the job
+	 * @return Returns true if the task can be pruned
+	 */
+	public boolean isPrunable(Shared<?> shared) {
+		return false;
+	}
+
 	/**
 	 * Sets the instance of the Compute Engine in which the current task is
 	 * executing
@@ -76,6 +92,19 @@ public abstract class TaskImpl<T> implements Task<T> {
 		return false;
 	}
 
+	/**
+	 * Validates whether the task can structurally be split into subtasks, no
+	 * matter how small they would be. Whether it is actually split is decided
+	 * at runtime from the measured cost of similar tasks;
+	 * {@link #isDecomposable()} only serves as the rule while nothing has been
+	 * measured yet.
+	 * 
+	 * @return Returns whether the task can be split
+	 */
+	public boolean isSplittable() {
+		return isDecomposable();
+	}
+
 	/**
 	 * Defines the execution carried out on a remote Compute Engine
 	 * 
@@ -177,4 +206,25 @@ public abstract class TaskImpl<T> implements Task<T> {
 	 *         resides
 	 */
 	public abstract Computer getComputer();
+
+	/**
+	 * Represents the unique identifier of the job this task belongs to.
+	 * 
+	 * @return Returns the unique identifier of the job of this task
+	 */
+	@Override
+	public UUID getJobID() {
+		return jobID;
+	}
+
+	/**
+	 * Sets the job this task belongs to. Subtasks and successors generated
+	 * from a task are given the job of that task.
+	 * 
+	 * @param jobID
+	 *            Represents the unique identifier of the job
+	 */
+	public void setJobID(UUID jobID) {
+		this.jobID = jobID;
+	}
 }
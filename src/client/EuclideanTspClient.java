@@ -15,11 +15,14 @@ import javax.swing.ImageIcon;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JScrollPane;
+import tasks.DistanceProvider;
 import api.Space;
 
 /**
  * Simulates the Client to submit Travelling salesman Task to remote Compute
- * Engine
+ * Engine. The first argument names the machine of the Space; an optional
+ * second argument names a {@link client.TspLibFile TSPLIB file} whose cities
+ * are solved instead of the built-in ones.
  * 
  * @author Vijayaraghavan Subbaiah
  * 
@@ -37,11 +40,24 @@ public class EuclideanTspClient {
 					{ 3, 3 }, { 3, 4 }, { 4, 1 }, { 4, 2 }, { 4, 3 }, { 4, 4 },
 					{ 5, 1 }, { 5, 2 }, { 5, 3 }, { 5, 4 }, { 6, 1 }, { 6, 2 },
 					{ 6, 3 }, { 6, 4 } };
+			DistanceProvider.Metric metric = DistanceProvider.Metric.EUCLIDEAN;
+			// An optional TSPLIB file replaces the built-in cities
+			if (args.length > 1) {
+				long loadStartTime = System.nanoTime();
+				TspLibFile file = TspLibFile.read(args[1]);
+				cities = file.getCities();
+				metric = file.getMetric();
+				System.out.println("Loaded " + file.getName() + ", "
+						+ file.size() + " cities, " + metric + ", in "
+						+ (System.nanoTime() - loadStartTime) / 1000000
+						+ " ms");
+			}
 			String spaceMachineName = args[0];
 			Registry registry = LocateRegistry.getRegistry(spaceMachineName);
 			Space space = (Space) registry.lookup(Space.SERVICE_NAME);
 			long startTime = System.nanoTime();
-			EuclideanTspJob euclideanTspJob = new EuclideanTspJob(cities);
+			EuclideanTspJob euclideanTspJob = new EuclideanTspJob(cities,
+					metric);
 			euclideanTspJob.generateTasks(space);
 			int[] tour = (int[]) euclideanTspJob.getOverallResult();
 			long endTime = System.nanoTime();
@@ -1,16 +1,18 @@
 package client;
 
 import java.rmi.RemoteException;
-import java.util.ArrayList;
-import java.util.Iterator;
 
 import system.Shared;
+import tasks.DistanceProvider;
 import tasks.EuclideanTspTask;
 import tasks.TSPResult;
+import tasks.TspHeuristic;
+import tasks.TspInstance;
+import tasks.TspSearchStatistics;
 import tasks.TspUpperBound;
+import api.DataHandle;
 import api.Result;
 import api.Space;
-import api.Task.TaskType;
 
 /**
  * Defines how the Travelling Salesman problem is broken up into tasks
@@ -25,9 +27,15 @@ public class EuclideanTspJob implements Job {
 	int[] minTour;
 	double minDistance;
 	double[][] cities;
+	DistanceProvider.Metric metric;
 
 	EuclideanTspJob(double[][] cities) {
+		this(cities, DistanceProvider.Metric.EUCLIDEAN);
+	}
+
+	EuclideanTspJob(double[][] cities, DistanceProvider.Metric metric) {
 		this.cities = cities.clone();
+		this.metric = metric;
 		minDistance = Double.MAX_VALUE;
 	}
 
@@ -42,51 +50,77 @@ public class EuclideanTspJob implements Job {
 
 	@Override
 	public void generateTasks(Space space) throws RemoteException {
-		ArrayList<Integer> citiesList = new ArrayList<Integer>();
-		for (int i = 1; i < cities.length; i++)
-			citiesList.add(i);
-		int start = 0;
-		int next = 0;
-		double totDist = 0;
-		while (citiesList.size() != 0) {
-			double minDist = Double.MAX_VALUE;
-			double curDist = 0;
-			Iterator<Integer> iter = citiesList.iterator();
-			int i = 0;
-			int index = 0;
-			while (iter.hasNext()) {
-				next = iter.next();
-				curDist = euclideanDistance(cities[start][0], cities[start][1],
-						cities[next][0], cities[next][1]);
-				if (curDist < minDist) {
-					minDist = curDist;
-					index = i;
-				}
-				i++;
+		TspInstance tspInstance = new TspInstance(cities, metric);
+		TspHeuristic heuristic = new TspHeuristic(
+				tspInstance.getDistanceProvider());
+		int[] heuristicTour = heuristic.solve(Long.getLong(
+				"tsp.heuristicMillis", 1000));
+		double heuristicDistance = heuristic.length(heuristicTour);
+		System.out.println(heuristicDistance);
+		Shared<Double> tspSharedObj = new TspUpperBound(heuristicDistance,
+				heuristicTour);
+		DataHandle<TspInstance> instance = space.putJobData(tspInstance);
+		try {
+			EuclideanTspTask partialEuclideanTspTask = new EuclideanTspTask(0,
+					instance, cities.length);
+			@SuppressWarnings("unchecked")
+			Result<TSPResult> result = (Result<TSPResult>) space.compute(
+					partialEuclideanTspTask, tspSharedObj);
+			TSPResult tspResult = result.getTaskReturnValue();
+			if (tspResult != null)
+				printStatistics(tspResult.getStatistics());
+			if (result.getSharedMillis() >= 0)
+				System.out.println("Upper bound last improved after "
+						+ result.getSharedMillis() + " ms");
+			// The search only reports tours shorter than the upper bound it
+			// prunes with, so the optimal tour is either its own or the one
+			// shared with the final upper bound, by the client or an
+			// improvement task
+			minTour = heuristicTour;
+			minDistance = heuristicDistance;
+			if (tspResult != null && tspResult.getMinTour() != null
+					&& tspResult.getMinDistance() < minDistance) {
+				minTour = tspResult.getMinTour();
+				minDistance = tspResult.getMinDistance();
+			}
+			TspUpperBound finalBound = (TspUpperBound) result.getShared();
+			if (finalBound != null && finalBound.getTour() != null
+					&& finalBound.get() < minDistance) {
+				minTour = finalBound.getTour();
+				minDistance = finalBound.get();
 			}
-			start = citiesList.remove(index);
-			totDist += minDist;
+		} finally {
+			space.removeJobData(instance);
 		}
-		totDist += euclideanDistance(cities[start][0], cities[start][1],
-				cities[0][0], cities[0][1]);
-		System.out.println(totDist);
-		Shared<Double> tspSharedObj = new TspUpperBound(totDist);
-		EuclideanTspTask partialEuclideanTspTask = new EuclideanTspTask(0,
-				cities, TaskType.CHILDTASK);
-		@SuppressWarnings("unchecked")
-		Result<TSPResult> result = (Result<TSPResult>) space.compute(
-				partialEuclideanTspTask, tspSharedObj);
-		TSPResult tspResult = result.getTaskReturnValue();
-		minTour = tspResult.getMinTour();
 	}
 
-	private double euclideanDistance(double x1, double y1, double x2, double y2) {
-		return Math.sqrt(((x1 - x2) * (x1 - x2)) + ((y1 - y2) * (y1 - y2)));
+	/**
+	 * Prints the work done by the search
+	 * 
+	 * @param statistics
+	 *            Represents the statistics added up over every search of the
+	 *            job
+	 */
+	private void printStatistics(TspSearchStatistics statistics) {
+		System.out.println("Partial tours expanded: "
+				+ statistics.getNodeCount());
+		long lookups = statistics.getTranspositionLookups();
+		if (lookups == 0)
+			return;
+		System.out.println("Transposition table lookups: " + lookups
+				+ ", hits: " + statistics.getTranspositionHits() + " ("
+				+ 100 * statistics.getTranspositionHits() / lookups
+				+ "%), dominated: " + statistics.getTranspositionPrunes()
+				+ " (" + 100 * statistics.getTranspositionPrunes() / lookups
+				+ "%)");
 	}
 
 	/**
 	 * Defines how the solutions to subdivided tasks are combined to solution to
-	 * overall problem
+	 * overall problem. Nothing is left to collect, as
+	 * {@link #generateTasks(Space)} waits for the result of its own job
+	 * through {@link api.Space#compute(api.Task, Shared) compute} and keeps
+	 * the tour.
 	 * 
 	 * @param space
 	 *            Represents the remote Space to which Tasks {@link api.Task
@@ -95,10 +129,6 @@ public class EuclideanTspJob implements Job {
 
 	@Override
 	public void collectResults(Space space) throws RemoteException {
-		@SuppressWarnings("unchecked")
-		Result<TSPResult> result = (Result<TSPResult>) space.take();
-		TSPResult tspResult = result.getTaskReturnValue();
-		minTour = tspResult.getMinTour();
 	}
 
 	/**
@@ -13,6 +13,7 @@ public class FibonacciJob implements Job {
 	int n;
 	int sum;
 	int levelNumber;
+	UUID jobID;
 
 	public FibonacciJob(int n) {
 		this.n = n;
@@ -33,7 +34,7 @@ public class FibonacciJob implements Job {
 	public void generateTasks(Space space) throws RemoteException {
 		FibonacciTask task = new FibonacciTask(levelNumber, n,
 				TaskType.CHILDTASK, UUID.randomUUID());
-		space.put(task);
+		jobID = space.submit(task, null);
 	}
 
 	/**
@@ -48,7 +49,7 @@ public class FibonacciJob implements Job {
 	@Override
 	public void collectResults(Space space) throws RemoteException {
 		@SuppressWarnings("unchecked")
-		Result<Integer> result = (Result<Integer>) space.take();
+		Result<Integer> result = (Result<Integer>) space.take(jobID);
 		sum = result.getTaskReturnValue();
 	}
 
@@ -27,6 +27,7 @@ public class MandelbrotSetJob implements Job {
 	int numColumnSquares;
 	int iterationLimit;
 	int[][] counts;
+	UUID jobID;
 
 	/**
 	 * @param lowerX
@@ -77,7 +78,7 @@ public class MandelbrotSetJob implements Job {
 		MandelbrotSetTask task = new MandelbrotSetTask(lowerX, lowerY,
 				edgeLength, numRowSquares, numColumnSquares, iterationLimit, 0,
 				0, TaskType.CHILDTASK, UUID.randomUUID());
-		space.put(task);
+		jobID = space.submit(task, null);
 	}
 
 	/**
@@ -93,7 +94,7 @@ public class MandelbrotSetJob implements Job {
 	public void collectResults(Space space) throws RemoteException {
 		@SuppressWarnings("unchecked")
 		Result<Map<Integer, int[][]>> result = (Result<Map<Integer, int[][]>>) space
-				.take();
+				.take(jobID);
 		counts = result.getTaskReturnValue().get(0);
 	}
 
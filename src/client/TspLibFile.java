@@ -0,0 +1,341 @@
+package client;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import tasks.DistanceProvider;
+
+/**
+ * Represents a Travelling Salesman Problem instance read from a file in the
+ * format of the TSPLIB library, with cities given by two dimensional
+ * coordinates under the EUC_2D, CEIL_2D or ATT metric. The file is mapped into
+ * memory, copied out in one bulk transfer, and the coordinates are parsed
+ * from its bytes straight into primitive arrays, without creating a string
+ * per line or per number, so that instances of a hundred thousand cities load
+ * in a fraction of a second.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+public class TspLibFile {
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4,
+			1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+			1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+	private static final int MAX_MANTISSA_DIGITS = 18;
+	private String fileName;
+	private String name;
+	private DistanceProvider.Metric metric;
+	private double[] x;
+	private double[] y;
+	private byte[] bytes;
+	private int position;
+	private int limit;
+
+	private TspLibFile(String fileName) {
+		this.fileName = fileName;
+	}
+
+	/**
+	 * Reads an instance from a TSPLIB file
+	 *
+	 * @param fileName
+	 *            Represents the path of the file
+	 * @return Returns the instance held by the file
+	 * @throws IOException
+	 *             if the file cannot be read, is malformed or describes an
+	 *             instance other than a symmetric one with two dimensional
+	 *             coordinates under a supported metric
+	 */
+	public static TspLibFile read(String fileName) throws IOException {
+		TspLibFile file = new TspLibFile(fileName);
+		RandomAccessFile input = new RandomAccessFile(fileName, "r");
+		try {
+			FileChannel channel = input.getChannel();
+			if (channel.size() > Integer.MAX_VALUE)
+				throw file.error("file too large to map");
+			MappedByteBuffer buffer = channel.map(
+					FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			// One bulk copy out of the mapping costs less than reading the
+			// mapping a byte at a time while the parser is still interpreted
+			file.bytes = new byte[buffer.limit()];
+			buffer.get(file.bytes);
+		} finally {
+			input.close();
+		}
+		file.limit = file.bytes.length;
+		file.parse();
+		file.bytes = null;
+		return file;
+	}
+
+	/**
+	 * Gets the name of the instance
+	 *
+	 * @return Returns the name given in the file, or the file name if it
+	 *         gives none
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the way the distances between cities follow from their
+	 * coordinates
+	 *
+	 * @return Returns the metric of the instance
+	 */
+	public DistanceProvider.Metric getMetric() {
+		return metric;
+	}
+
+	/**
+	 * Represents the number of cities of the instance
+	 *
+	 * @return Returns the number of cities
+	 */
+	public int size() {
+		return x.length;
+	}
+
+	/**
+	 * Gets the coordinates of the cities, numbered from 0 in the order of
+	 * their numbers in the file
+	 *
+	 * @return Returns the x and y coordinates of every city
+	 */
+	public double[][] getCities() {
+		double[][] cities = new double[x.length][2];
+		for (int i = 0; i < x.length; i++) {
+			cities[i][0] = x[i];
+			cities[i][1] = y[i];
+		}
+		return cities;
+	}
+
+	/**
+	 * Reads the specification part of the file, one keyword per line, up to
+	 * the coordinate section and then the coordinates
+	 *
+	 * @throws IOException
+	 */
+	private void parse() throws IOException {
+		int dimension = -1;
+		while (true) {
+			skipBlankLines();
+			if (position == limit)
+				throw error("no NODE_COORD_SECTION");
+			String keyword = readKeyword();
+			if (keyword.equals("NODE_COORD_SECTION"))
+				break;
+			if (keyword.equals("EOF"))
+				throw error("no NODE_COORD_SECTION");
+			if (keyword.endsWith("_SECTION"))
+				throw error("unsupported section " + keyword);
+			String value = readValue();
+			if (keyword.equals("NAME")) {
+				name = value;
+			} else if (keyword.equals("TYPE")) {
+				if (!value.equals("TSP"))
+					throw error("unsupported type " + value);
+			} else if (keyword.equals("DIMENSION")) {
+				try {
+					dimension = Integer.parseInt(value);
+				} catch (NumberFormatException e) {
+					throw error("invalid dimension " + value);
+				}
+			} else if (keyword.equals("EDGE_WEIGHT_TYPE")) {
+				if (value.equals("EUC_2D"))
+					metric = DistanceProvider.Metric.EUC_2D;
+				else if (value.equals("CEIL_2D"))
+					metric = DistanceProvider.Metric.CEIL_2D;
+				else if (value.equals("ATT"))
+					metric = DistanceProvider.Metric.ATT;
+				else
+					throw error("unsupported edge weight type " + value);
+			} else if (keyword.equals("NODE_COORD_TYPE")) {
+				if (!value.equals("TWOD_COORDS"))
+					throw error("unsupported node coordinate type " + value);
+			}
+		}
+		if (dimension < 3)
+			throw error("DIMENSION missing or below 3");
+		if (metric == null)
+			throw error("EDGE_WEIGHT_TYPE missing");
+		if (name == null)
+			name = fileName;
+		readCoordinates(dimension);
+	}
+
+	/**
+	 * Reads the coordinate section, one line of a city number and two
+	 * coordinates per city
+	 *
+	 * @param dimension
+	 *            Represents the number of cities
+	 * @throws IOException
+	 */
+	private void readCoordinates(int dimension) throws IOException {
+		x = new double[dimension];
+		y = new double[dimension];
+		boolean[] read = new boolean[dimension];
+		for (int i = 0; i < dimension; i++) {
+			double number = readNumber();
+			int city = (int) number - 1;
+			if (city != number - 1 || city < 0 || city >= dimension)
+				throw error("invalid city number " + number);
+			if (read[city])
+				throw error("city " + (city + 1) + " given twice");
+			read[city] = true;
+			x[city] = readNumber();
+			y[city] = readNumber();
+		}
+	}
+
+	/**
+	 * Skips spaces, tabs and line breaks
+	 */
+	private void skipBlankLines() {
+		while (position < limit && bytes[position] <= ' ')
+			position++;
+	}
+
+	/**
+	 * Reads the keyword at the start of a specification line
+	 *
+	 * @return Returns the keyword
+	 */
+	private String readKeyword() {
+		int start = position;
+		while (position < limit) {
+			byte b = bytes[position];
+			if (b <= ' ' || b == ':')
+				break;
+			position++;
+		}
+		return text(start, position);
+	}
+
+	/**
+	 * Reads the rest of a specification line after its keyword and colon
+	 *
+	 * @return Returns the value with surrounding blanks removed
+	 */
+	private String readValue() {
+		int start = position;
+		while (position < limit && bytes[position] != '\n')
+			position++;
+		String value = text(start, position).trim();
+		if (value.startsWith(":"))
+			value = value.substring(1).trim();
+		return value;
+	}
+
+	/**
+	 * Reads a decimal number, which may have a sign, a fraction and an
+	 * exponent. Numbers of up to 18 significant digits whose value can be
+	 * computed exactly in one multiplication or division are converted
+	 * directly, and the rare others by {@link Double#parseDouble(String)},
+	 * which gives the same, correctly rounded, result in either case.
+	 *
+	 * @return Returns the number
+	 * @throws IOException
+	 */
+	private double readNumber() throws IOException {
+		skipBlankLines();
+		int start = position;
+		boolean negative = peek() == '-';
+		if (negative || peek() == '+')
+			position++;
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean exact = true;
+		boolean fraction = false;
+		int digitStart = position;
+		while (true) {
+			int b = peek();
+			if (b >= '0' && b <= '9') {
+				if (digits < MAX_MANTISSA_DIGITS) {
+					if (mantissa != 0 || b != '0')
+						digits++;
+					mantissa = mantissa * 10 + (b - '0');
+					if (fraction)
+						exponent--;
+				} else {
+					exact = false;
+				}
+			} else if (b == '.' && !fraction) {
+				fraction = true;
+			} else {
+				break;
+			}
+			position++;
+		}
+		if (position - digitStart == (fraction ? 1 : 0))
+			throw error("number expected");
+		if (peek() == 'e' || peek() == 'E') {
+			position++;
+			boolean negativeExponent = peek() == '-';
+			if (negativeExponent || peek() == '+')
+				position++;
+			int value = 0;
+			int exponentStart = position;
+			while (peek() >= '0' && peek() <= '9') {
+				if (value < 10000)
+					value = value * 10 + (peek() - '0');
+				position++;
+			}
+			if (position == exponentStart)
+				throw error("exponent expected");
+			exponent += negativeExponent ? -value : value;
+		}
+		if (peek() > ' ')
+			throw error("malformed number");
+		if (exact && mantissa < MAX_EXACT_MANTISSA && exponent >= -22
+				&& exponent <= 22) {
+			double value = exponent < 0 ? mantissa
+					/ POWERS_OF_TEN[-exponent] : mantissa
+					* POWERS_OF_TEN[exponent];
+			return negative ? -value : value;
+		}
+		return Double.parseDouble(text(start, position));
+	}
+
+	/**
+	 * Gets the byte at the current offset without moving past it
+	 *
+	 * @return Returns the byte, or -1 at the end of the file
+	 */
+	private int peek() {
+		return position < limit ? bytes[position] : -1;
+	}
+
+	/**
+	 * Copies a range of the file into a string
+	 *
+	 * @param start
+	 *            Represents the offset of the first byte
+	 * @param end
+	 *            Represents the offset after the last byte
+	 * @return Returns the bytes as a string
+	 */
+	private String text(int start, int end) {
+		return new String(bytes, start, end - start, StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Creates the exception reporting a problem with the file
+	 *
+	 * @param message
+	 *            Represents the problem
+	 * @return Returns an exception naming the file and the offset reached
+	 */
+	private IOException error(String message) {
+		return new IOException(fileName + " at byte " + position + ": "
+				+ message);
+	}
+}
@@ -56,14 +56,109 @@ public interface Computer extends java.rmi.Remote {
 	public Task<?> generateSuccessorTask(Task<?> partialTask, int jointCounter)
 			throws RemoteException;
 
-	public void setShared(Shared<?> proposedShared, boolean bySpace)
-			throws RemoteException;
+	public void setShared(UUID jobID, Shared<?> proposedShared,
+			boolean bySpace) throws RemoteException;
+
+	public Shared<?> getShared(UUID jobID) throws RemoteException;
+
+	/**
+	 * Discards whatever the Computer holds for a job which has finished
+	 * 
+	 * @param jobID
+	 *            Represents the unique identifier of the finished job
+	 * @throws RemoteException
+	 */
+	void removeJob(UUID jobID) throws RemoteException;
 
-	public Shared<?> getShared() throws RemoteException;
+	/**
+	 * Validates whether a job has tasks on the Computer and has not finished,
+	 * so that long running tasks of a finished job can stop early
+	 * 
+	 * @param jobID
+	 *            Represents the unique identifier of the job
+	 * @return Returns true if the job has not been removed since the Computer
+	 *         received its tasks
+	 * @throws RemoteException
+	 */
+	boolean isJobRunning(UUID jobID) throws RemoteException;
 
 	public TaskContainer generate(Task<?> partialTask, UUID successorID)
 			throws RemoteException;
 
 	void putTasksInComputer(Task<?> task) throws RemoteException;
 
+	/**
+	 * Hands a batch of {@link api.Task tasks} to the registered Computer in a
+	 * single remote call, so that short running tasks do not each pay for a
+	 * round trip.
+	 * 
+	 * @param tasks
+	 *            Represents the {@link api.Task tasks} to be executed by
+	 *            registered Computer.
+	 * @throws RemoteException
+	 */
+	void putTasksInComputer(LinkedList<Task<?>> tasks) throws RemoteException;
+
+	/**
+	 * Stores a copy of job data registered with the {@link api.Space Space}
+	 * 
+	 * @param dataID
+	 *            Represents the unique ID of the data
+	 * @param data
+	 *            Represents the data
+	 * @throws RemoteException
+	 */
+	void putJobData(UUID dataID, Object data) throws RemoteException;
+
+	/**
+	 * Gets the local copy of job data, fetching it from the Space if the
+	 * Computer does not hold it yet
+	 * 
+	 * @param dataID
+	 *            Represents the unique ID of the data
+	 * @return Returns the data
+	 * @throws RemoteException
+	 */
+	Object getJobData(UUID dataID) throws RemoteException;
+
+	/**
+	 * Discards the local copy of job data
+	 * 
+	 * @param dataID
+	 *            Represents the unique ID of the data
+	 * @throws RemoteException
+	 */
+	void removeJobData(UUID dataID) throws RemoteException;
+
+	/**
+	 * Removes up to the given number of the oldest locally queued
+	 * {@link api.Task tasks}, which root the largest unexplored subtrees, so
+	 * that the Space can hand them to idle Computers.
+	 * 
+	 * @param maxTasks
+	 *            Represents the maximum number of tasks to be exported
+	 * @return Returns the exported tasks
+	 * @throws RemoteException
+	 */
+	LinkedList<Task<?>> exportTasks(int maxTasks) throws RemoteException;
+
+	/**
+	 * Delivers the {@link api.Result Result} of an exported task to the
+	 * successor waiting for it on this Computer.
+	 * 
+	 * @param result
+	 *            Represents the result of the exported task
+	 * @throws RemoteException
+	 */
+	void putResult(Result<?> result) throws RemoteException;
+
+	/**
+	 * Gets the number of threads the Computer uses to execute tasks
+	 * concurrently.
+	 * 
+	 * @return Returns the number of worker threads of the Computer
+	 * @throws RemoteException
+	 */
+	int getWorkerCount() throws RemoteException;
+
 }
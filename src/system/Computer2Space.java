@@ -29,11 +29,34 @@ public interface Computer2Space extends java.rmi.Remote {
 
 	String register(Computer computer) throws java.rmi.RemoteException;
 
-	void setShared(Shared<?> shared) throws java.rmi.RemoteException;
+	void setShared(UUID jobID, Shared<?> shared)
+			throws java.rmi.RemoteException;
 
 	void putGeneratedTasks(TaskContainer tc, UUID taskID)
 			throws java.rmi.RemoteException;
 
 	void putResults(Result<?> result, UUID taskID)
 			throws java.rmi.RemoteException;
+
+	/**
+	 * Puts the results and generated subtasks of several tasks executed by a
+	 * {@system.Computer Computer} into the {@link api.Space Space} in a single
+	 * remote call
+	 * 
+	 * @param batch
+	 *            Represents the coalesced results and generated subtasks
+	 * @throws java.rmi.RemoteException
+	 */
+	void putBatch(OutboundBatch batch) throws java.rmi.RemoteException;
+
+	/**
+	 * Gets job data registered with the {@link api.Space Space}, for a
+	 * {@system.Computer Computer} which does not hold a copy yet
+	 * 
+	 * @param dataID
+	 *            Represents the unique ID of the data
+	 * @return Returns the data, or null if it has been removed
+	 * @throws java.rmi.RemoteException
+	 */
+	Object getJobData(UUID dataID) throws java.rmi.RemoteException;
 }
@@ -6,38 +6,95 @@ import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
 import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
 
 import api.Result;
+import api.SuccessorTask;
 import api.Task;
 import api.TaskImpl;
 
 /**
- * Defines the Compute Engine which executes resource intensive tasks
+ * Defines the Compute Engine which executes resource intensive tasks. The
+ * subtasks generated by decomposing a task stay on the Computer, in a local
+ * deque worked on depth first, and their successors join locally. Only the
+ * result of a whole dispatched subtree is sent back to the Space, and the
+ * oldest local tasks are exported to the Space when it asks for work for idle
+ * Computers. Whether a task is split at all is decided by a
+ * {@link system.GranularityController GranularityController} from the measured
+ * cost of earlier tasks. A task which is not split can still spread its work
+ * over worker threads waiting for a task, through threads of a fork-join pool
+ * lent to it on their behalf by the local {@link system.WorkerLender
+ * WorkerLender} interface. A waiting worker which finds a task while a thread
+ * lent on its behalf is still running waits for that thread to return, so no
+ * more threads run than there are workers. Lending is turned on by setting
+ * the <code>computer.lendIdleWorkers</code> system property to true.
  * 
  * @author Vijayaraghavan Subbaiah
  * 
  */
 
 public class ComputerImpl extends UnicastRemoteObject implements Computer,
-		Runnable {
+		WorkerLender, Runnable {
 
 	private static final long serialVersionUID = -1090559231989990343L;
 	Computer2Space spaceProxy;
-	Shared<?> shared = null;
+	private OutboundPipeline outboundPipeline;
+	private SharedSender sharedSender;
+	ConcurrentHashMap<UUID, SharedCell> sharedMap;
 	private Thread[] tarr;
-	LinkedBlockingQueue<Task<?>> readyTaskList;
+	private int workerCount;
+	LinkedBlockingDeque<Task<?>> readyTaskList;
+	private Set<UUID> dispatchedTasks;
+	private Set<UUID> runningJobs;
+	private ConcurrentHashMap<UUID, SuccessorTask<?>> localSuccessors;
+	private ConcurrentHashMap<UUID, UUID> subtreeOrigins;
+	private GranularityController granularityController;
+	private ConcurrentHashMap<UUID, Object> jobData;
+	private ForkJoinPool lendingPool;
+	private Semaphore idleWorkers;
 
 	public ComputerImpl() throws RemoteException {
 		super();
-		readyTaskList = new LinkedBlockingQueue<Task<?>>();
+		readyTaskList = new LinkedBlockingDeque<Task<?>>();
+		dispatchedTasks = Collections
+				.newSetFromMap(new ConcurrentHashMap<UUID, Boolean>());
+		runningJobs = Collections
+				.newSetFromMap(new ConcurrentHashMap<UUID, Boolean>());
+		localSuccessors = new ConcurrentHashMap<UUID, SuccessorTask<?>>();
+		subtreeOrigins = new ConcurrentHashMap<UUID, UUID>();
+		granularityController = new GranularityController();
+		jobData = new ConcurrentHashMap<UUID, Object>();
+		sharedMap = new ConcurrentHashMap<UUID, SharedCell>();
+		workerCount = Runtime.getRuntime().availableProcessors();
+		idleWorkers = new Semaphore(0);
+		if (Boolean.parseBoolean(System.getProperty(
+				"computer.lendIdleWorkers", "false")))
+			lendingPool = new ForkJoinPool(workerCount);
 	}
 
 	void setSpaceProxy(Computer2Space spaceProxy) {
 		this.spaceProxy = spaceProxy;
-		tarr = new Thread[Runtime.getRuntime().availableProcessors()];
+		outboundPipeline = new OutboundPipeline(spaceProxy);
+		sharedSender = new SharedSender() {
+			@Override
+			void send(UUID jobID, Shared<?> shared) {
+				try {
+					ComputerImpl.this.spaceProxy.setShared(jobID, shared);
+				} catch (RemoteException e) {
+					System.out.println("Machine Down");
+				}
+			}
+		};
+		tarr = new Thread[workerCount];
 		for (int i = 0; i < tarr.length; i++) {
 			tarr[i] = new Thread(this);
 			tarr[i].start();
@@ -56,6 +113,7 @@ public class ComputerImpl extends UnicastRemoteObject implements Computer,
 	public Result<?> execute(Task<?> t) throws RemoteException {
 		((TaskImpl<?>) t).setComputer(this);
 		Result<?> result = t.execute();
+		((ResultImpl<?>) result).setJobID(t.getJobID());
 		return result;
 	}
 
@@ -114,92 +172,290 @@ public class ComputerImpl extends UnicastRemoteObject implements Computer,
 		return null;
 	}
 
-	public void setShared(Shared<?> proposedShared, boolean bySpace)
-			throws RemoteException {
-		if (bySpace) {
-			shared = proposedShared;
-		} else {
-			if (proposedShared.isNewerThan(shared)) {
-				shared = proposedShared;
-				Thread t = new Thread(new Runnable() {
-					public void run() {
-						try {
-							spaceProxy.setShared(shared);
-						} catch (RemoteException e) {
-							System.out.println("Machine Down");
-						}
-					}
-				});
-				t.start();
-			}
+	public void setShared(UUID jobID, Shared<?> proposedShared,
+			boolean bySpace) throws RemoteException {
+		SharedCell cell = sharedMap.get(jobID);
+		if (cell == null) {
+			cell = new SharedCell();
+			SharedCell existing = sharedMap.putIfAbsent(jobID, cell);
+			if (existing != null)
+				cell = existing;
 		}
+		if (!cell.offer(proposedShared) || bySpace)
+			return;
+		sharedSender.offer(jobID, proposedShared);
 	}
 
-	public Shared<?> getShared() {
-		return shared;
+	public Shared<?> getShared(UUID jobID) {
+		SharedCell cell = sharedMap.get(jobID);
+		return cell == null ? null : cell.get();
+	}
+
+	@Override
+	public void removeJob(UUID jobID) {
+		runningJobs.remove(jobID);
+		sharedMap.remove(jobID);
+		sharedSender.removeJob(jobID);
+		granularityController.removeJob(jobID);
+		Iterator<Task<?>> tasks = readyTaskList.iterator();
+		while (tasks.hasNext()) {
+			Task<?> task = tasks.next();
+			if (jobID.equals(task.getJobID())) {
+				tasks.remove();
+				dispatchedTasks.remove(task.getTaskID());
+			}
+		}
+		Iterator<Entry<UUID, SuccessorTask<?>>> successors = localSuccessors
+				.entrySet().iterator();
+		while (successors.hasNext()) {
+			Entry<UUID, SuccessorTask<?>> entry = successors.next();
+			if (jobID.equals(entry.getValue().getJobID())) {
+				successors.remove();
+				subtreeOrigins.remove(entry.getKey());
+			}
+		}
 	}
 
 	@Override
 	public TaskContainer generate(Task<?> partialTask, UUID successorID)
 			throws RemoteException {
-		return partialTask.generate(successorID, this);
+		TaskContainer tc = partialTask.generate(successorID, this);
+		UUID jobID = partialTask.getJobID();
+		((TaskImpl<?>) tc.getSuccessorTask()).setJobID(jobID);
+		for (Task<?> childTask : tc.getChildTaskList()) {
+			((TaskImpl<?>) childTask).setJobID(jobID);
+		}
+		return tc;
 	}
 
 	@Override
 	public void putTasksInComputer(Task<?> task)
 			throws java.rmi.RemoteException {
+		runningJobs.add(task.getJobID());
+		dispatchedTasks.add(task.getTaskID());
+		readyTaskList.addLast(task);
+	}
+
+	@Override
+	public void putTasksInComputer(LinkedList<Task<?>> tasks)
+			throws RemoteException {
+		Iterator<Task<?>> iterator = tasks.descendingIterator();
+		while (iterator.hasNext()) {
+			Task<?> task = iterator.next();
+			runningJobs.add(task.getJobID());
+			dispatchedTasks.add(task.getTaskID());
+			readyTaskList.addLast(task);
+		}
+	}
+
+	@Override
+	public boolean isJobRunning(UUID jobID) {
+		return runningJobs.contains(jobID);
+	}
+
+	@Override
+	public void putJobData(UUID dataID, Object data) {
+		jobData.put(dataID, data);
+	}
+
+	@Override
+	public Object getJobData(UUID dataID) throws RemoteException {
+		Object data = jobData.get(dataID);
+		if (data == null) {
+			data = spaceProxy.getJobData(dataID);
+			if (data != null) {
+				Object existing = jobData.putIfAbsent(dataID, data);
+				if (existing != null)
+					data = existing;
+			}
+		}
+		return data;
+	}
+
+	@Override
+	public void removeJobData(UUID dataID) {
+		jobData.remove(dataID);
+	}
+
+	@Override
+	public LinkedList<Task<?>> exportTasks(int maxTasks) {
+		LinkedList<Task<?>> exported = new LinkedList<Task<?>>();
+		int count = Math.min(maxTasks, (readyTaskList.size() + 1) / 2);
+		Task<?> task;
+		while (exported.size() < count
+				&& (task = readyTaskList.pollFirst()) != null) {
+			dispatchedTasks.remove(task.getTaskID());
+			exported.add(task);
+		}
+		return exported;
+	}
+
+	@Override
+	public void putResult(Result<?> result) {
 		try {
-			readyTaskList.put(task);
+			deliver(result);
+		} catch (RemoteException e) {
+			e.printStackTrace();
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		}
 	}
 
+	@Override
+	public int getWorkerCount() {
+		return workerCount;
+	}
+
+	@Override
+	public boolean hasIdleWorker() {
+		return lendingPool != null && idleWorkers.availablePermits() > 0;
+	}
+
+	@Override
+	public boolean lendIdleWorker(final Runnable work) {
+		if (lendingPool == null || !idleWorkers.tryAcquire())
+			return false;
+		lendingPool.execute(new Runnable() {
+			public void run() {
+				try {
+					work.run();
+				} finally {
+					idleWorkers.release();
+				}
+			}
+		});
+		return true;
+	}
+
 	public void executeTask(final Task<?> partialTask) throws RemoteException {
 		try {
-			long startTime = System.nanoTime();
-			if (partialTask.isDecomposable()) {
+			UUID taskID = partialTask.getTaskID();
+			boolean dispatched = dispatchedTasks.remove(taskID);
+			if (isPrunable(partialTask)) {
+				ResultImpl<Object> prunedResult = new ResultImpl<Object>(
+						partialTask.getLevelNumber() - 1, null,
+						partialTask.getSuccessorID());
+				prunedResult.setJobID(partialTask.getJobID());
+				if (dispatched) {
+					outboundPipeline.putResult(prunedResult, taskID);
+				} else {
+					deliver(prunedResult);
+				}
+			} else if (granularityController.shouldSplit(partialTask)) {
 				UUID successorID = UUID.randomUUID();
-				final TaskContainer tc = generate(partialTask, successorID);
-				Thread t = new Thread(new Runnable() {
-					public void run() {
-						try {
-							spaceProxy.putGeneratedTasks(tc,
-									partialTask.getTaskID());
-						} catch (RemoteException e) {
-							e.printStackTrace();
-						}
+				TaskContainer tc = generate(partialTask, successorID);
+				granularityController.recordSplit(partialTask, tc
+						.getChildTaskList().size());
+				if (dispatched)
+					subtreeOrigins.put(successorID, taskID);
+				SuccessorTask<?> successorTask = tc.getSuccessorTask();
+				if (successorTask.getJointCounter() == 0) {
+					ResultImpl<Object> prunedResult = new ResultImpl<Object>(
+							successorTask.getLevelNumber() - 1, null,
+							successorTask.getSuccessorID());
+					prunedResult.setJobID(partialTask.getJobID());
+					complete(successorID, prunedResult);
+				} else {
+					localSuccessors.put(successorID, successorTask);
+					Iterator<Task<?>> childTasks = tc.getChildTaskList()
+							.descendingIterator();
+					while (childTasks.hasNext()) {
+						readyTaskList.addLast(childTasks.next());
 					}
-				});
-				t.start();
+				}
 			} else {
-				final Result<?> partialResult = execute(partialTask);
-				Thread t = new Thread(new Runnable() {
-					public void run() {
-						try {
-							spaceProxy.putResults(partialResult,
-									partialTask.getTaskID());
-						} catch (RemoteException e) {
-							e.printStackTrace();
-						}
-					}
-				});
-				t.start();
+				long startTime = System.nanoTime();
+				Result<?> partialResult = execute(partialTask);
+				granularityController.recordExecution(partialTask,
+						System.nanoTime() - startTime);
+				if (dispatched) {
+					outboundPipeline.putResult(partialResult, taskID);
+				} else {
+					deliver(partialResult);
+				}
 			}
-			long endTime = System.nanoTime();
-			long elapsedTime = endTime - startTime;
-			System.out.println(elapsedTime);
-		} catch (RemoteException e) {
+		} catch (InterruptedException e) {
 			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * Validates whether a task can no longer improve on the Shared value of its
+	 * job, which may have improved since the task was queued
+	 * 
+	 * @param task
+	 *            Represents the task about to be executed
+	 * @return Returns true if the task can be discarded
+	 */
+	private boolean isPrunable(Task<?> task) {
+		Shared<?> shared = getShared(task.getJobID());
+		return shared != null && ((TaskImpl<?>) task).isPrunable(shared);
+	}
+
+	/**
+	 * Delivers the result of a locally generated task to its local successor,
+	 * composing the successor once all of its arguments have arrived
+	 * 
+	 * @param result
+	 *            Represents the result of the task
+	 * @throws RemoteException
+	 * @throws InterruptedException
+	 */
+	private void deliver(Result<?> result) throws RemoteException,
+			InterruptedException {
+		UUID successorID = ((ResultImpl<?>) result).getSuccessorID();
+		SuccessorTask<?> successorTask = localSuccessors.get(successorID);
+		if (successorTask == null)
+			return;
+		SuccessorTask<?> readyTask = successorTask.putArguments(result);
+		if (readyTask != null) {
+			localSuccessors.remove(successorID);
+			Result<?> composedResult = composeResult(readyTask);
+			((ResultImpl<?>) composedResult).setJobID(readyTask.getJobID());
+			complete(successorID, composedResult);
+		}
+	}
+
+	/**
+	 * Passes on the composed result of a local successor. The result of a
+	 * subtree rooted at a dispatched task goes to the Space, which then
+	 * considers the dispatched task completed; any other result goes to the
+	 * next local successor.
+	 * 
+	 * @param successorID
+	 *            Represents the unique ID of the successor which produced the
+	 *            result
+	 * @param result
+	 *            Represents the composed result
+	 * @throws RemoteException
+	 * @throws InterruptedException
+	 */
+	private void complete(UUID successorID, Result<?> result)
+			throws RemoteException, InterruptedException {
+		UUID originTaskID = subtreeOrigins.remove(successorID);
+		if (originTaskID != null) {
+			outboundPipeline.putResult(result, originTaskID);
+		} else {
+			deliver(result);
+		}
+	}
+
 	@Override
 	public void run() {
 		Task<?> partialTask = null;
 		while (true) {
 			try {
-				partialTask = readyTaskList.take();
+				partialTask = readyTaskList.pollLast();
+				if (partialTask == null) {
+					// A waiting worker hands its permit to a thread lent on its
+					// behalf, and takes it back before it runs the task it finds
+					idleWorkers.release();
+					try {
+						partialTask = readyTaskList.takeLast();
+					} finally {
+						idleWorkers.acquireUninterruptibly();
+					}
+				}
 				executeTask(partialTask);
 			} catch (InterruptedException e) {
 				e.printStackTrace();
@@ -5,10 +5,9 @@ import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.Map.Entry;
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import tasks.TaskContainer;
@@ -31,11 +30,16 @@ public class ComputerProxy extends UnicastRemoteObject implements Runnable,
 	 * 
 	 */
 	private static final long serialVersionUID = -2001231189089230248L;
+	private static final long LIVENESS_CHECK_MILLIS = Long.getLong(
+			"space.livenessCheckMillis", 1000);
 	private Computer computer;
 	private SpaceImpl space;
 	private Thread t;
 	String serviceName = new String();
 	ConcurrentHashMap<UUID, Task<?>> cachedTaskList;
+	private PrefetchWindow prefetchWindow;
+	private boolean failed;
+	private HashSet<UUID> returnedTasks;
 
 	/**
 	 * 
@@ -56,6 +60,8 @@ public class ComputerProxy extends UnicastRemoteObject implements Runnable,
 		this.space = space;
 		this.serviceName = serviceName;
 		cachedTaskList = new ConcurrentHashMap<UUID, Task<?>>();
+		returnedTasks = new HashSet<UUID>();
+		prefetchWindow = new PrefetchWindow(computer.getWorkerCount());
 		t = new Thread(this);
 		t.start();
 		Registry reg = LocateRegistry.getRegistry();
@@ -63,40 +69,215 @@ public class ComputerProxy extends UnicastRemoteObject implements Runnable,
 	}
 
 	/**
-	 * Represents a thread which removes {@link api.Task tasks} from a queue,
-	 * invoking the associated {@link system.Computer Computer's} execute method
-	 * with the task as its argument, and putting the returned
-	 * {@link api.Result Result} back into the {@link api.Space Space} for
-	 * retrieval by the client
+	 * Represents a thread which removes {@link api.Task tasks} from a queue in
+	 * batches, handing each batch to the associated {@link system.Computer
+	 * Computer} in one remote call. The number of tasks outstanding on the
+	 * Computer is bounded by its {@link system.PrefetchWindow PrefetchWindow}.
+	 * If the Computer cannot be reached, the tasks cached for it are reassigned
+	 * to the Space and the thread stops.
 	 */
 
 	@Override
 	public void run() {
-		Task<?> partialTask = null;
+		LinkedList<Task<?>> batch = null;
 		while (true) {
 			try {
-				partialTask = space.takeTask();
-				cachedTaskList.put(partialTask.getTaskID(), partialTask);
-				computer.putTasksInComputer(partialTask);
+				batch = space.takeTasks(this, awaitFreeSlots());
+				for (Task<?> partialTask : batch) {
+					cachedTaskList.put(partialTask.getTaskID(), partialTask);
+					ComputerProxy owner = space.getRemoteSuccessor(partialTask
+							.getSuccessorID());
+					if (owner != null)
+						owner.taskDispatched(partialTask.getTaskID());
+				}
+				long startTime = System.nanoTime();
+				computer.putTasksInComputer(batch);
+				prefetchWindow.recordRoundTrip(System.nanoTime() - startTime);
+			} catch (InterruptedException e) {
+				return;
 			} catch (RemoteException e) {
 				System.out
 						.println("Remote Exception received from the Computer");
-				System.out
-						.println("Reassigning all the cached tasks back to the Space");
-				try {
-					Set<Entry<UUID, Task<?>>> entrySet = cachedTaskList
-							.entrySet();
-					for (Entry<UUID, Task<?>> entry : entrySet) {
-						space.put(entry.getValue());
-					}
-					cachedTaskList.clear();
-					space.removeComputer(computer);
-					return;
-				} catch (RemoteException e1) {
-					System.out.println("Remote Exception Received");
+				computerFailed();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Blocks until the prefetch window of the {@link system.Computer Computer}
+	 * has room for more tasks. Tasks the Computer exported which were returned
+	 * to the Space by a failed Computer are given room on top of the window,
+	 * as the dispatched tasks waiting for them may fill it. Only results from
+	 * the Computer open up the window, so while it stays full the Computer is
+	 * checked to be alive every <code>space.livenessCheckMillis</code>
+	 * milliseconds.
+	 * 
+	 * @return Returns the number of tasks which can be dispatched
+	 * @throws InterruptedException
+	 * @throws RemoteException
+	 *             Throws RemoteException when the Computer cannot be reached
+	 */
+	private int awaitFreeSlots() throws InterruptedException, RemoteException {
+		while (true) {
+			synchronized (cachedTaskList) {
+				long deadline = System.currentTimeMillis()
+						+ LIVENESS_CHECK_MILLIS;
+				int windowSize = prefetchWindow.size() + returnedTasks.size();
+				while (cachedTaskList.size() >= windowSize) {
+					long remaining = deadline - System.currentTimeMillis();
+					if (remaining <= 0)
+						break;
+					cachedTaskList.wait(remaining);
+					windowSize = prefetchWindow.size() + returnedTasks.size();
+				}
+				if (cachedTaskList.size() < windowSize)
+					return windowSize - cachedTaskList.size();
+			}
+			computer.getWorkerCount();
+		}
+	}
+
+	/**
+	 * Reassigns all the tasks cached for a {@link system.Computer Computer}
+	 * which cannot be reached back to the Space. The first failure reported
+	 * for the Computer also removes it and stops the thread dispatching to it.
+	 */
+	void computerFailed() {
+		LinkedList<Task<?>> reassigned = new LinkedList<Task<?>>();
+		boolean first;
+		synchronized (cachedTaskList) {
+			first = !failed;
+			failed = true;
+			reassigned.addAll(cachedTaskList.values());
+			cachedTaskList.clear();
+			cachedTaskList.notifyAll();
+		}
+		System.out.println("Reassigning all the cached tasks back to the Space");
+		try {
+			for (Task<?> task : reassigned) {
+				ComputerProxy owner = space.getRemoteSuccessor(task
+						.getSuccessorID());
+				if (owner != null && owner != this)
+					owner.taskReturned(task.getTaskID());
+				space.put(task);
+			}
+			if (first)
+				space.removeComputer(computer);
+		} catch (RemoteException e) {
+			System.out.println("Remote Exception Received");
+		}
+		if (first && Thread.currentThread() != t)
+			t.interrupt();
+	}
+
+	/**
+	 * Records that a task exported by the {@link system.Computer Computer} was
+	 * returned to the Space by a failed Computer, so that it can be dispatched
+	 * back even while the tasks waiting for it fill the prefetch window
+	 * 
+	 * @param taskID
+	 *            Represents the unique ID of the returned task
+	 */
+	private void taskReturned(UUID taskID) {
+		synchronized (cachedTaskList) {
+			returnedTasks.add(taskID);
+			cachedTaskList.notifyAll();
+		}
+	}
+
+	/**
+	 * Records that a task exported by the {@link system.Computer Computer} has
+	 * been dispatched again, to this Computer or any other
+	 * 
+	 * @param taskID
+	 *            Represents the unique ID of the dispatched task
+	 */
+	private void taskDispatched(UUID taskID) {
+		synchronized (cachedTaskList) {
+			returnedTasks.remove(taskID);
+		}
+	}
+
+	/**
+	 * Removes a task completed by the {@link system.Computer Computer} from the
+	 * cached tasks, which opens up its prefetch window
+	 * 
+	 * @param taskID
+	 *            Represents the unique ID of the completed task
+	 */
+	private void taskCompleted(UUID taskID) {
+		synchronized (cachedTaskList) {
+			cachedTaskList.remove(taskID);
+			prefetchWindow.recordCompletion();
+			cachedTaskList.notifyAll();
+		}
+	}
+
+	/**
+	 * Validates whether the {@link system.Computer Computer} is still working
+	 * on tasks dispatched to it
+	 * 
+	 * @return Returns true if some dispatched task has not completed yet
+	 */
+	boolean hasOutstandingTasks() {
+		return !cachedTaskList.isEmpty();
+	}
+
+	/**
+	 * Asks the {@link system.Computer Computer} to hand part of its locally
+	 * generated tasks back to the Space. Exported tasks which were dispatched
+	 * to the Computer are no longer outstanding on it; the results of the
+	 * others are forwarded back to the Computer, which holds their successors.
+	 * A Computer which cannot be reached is treated as failed, so that its
+	 * tasks are reassigned and it is not asked again.
+	 * 
+	 * @param maxTasks
+	 *            Represents the maximum number of tasks to be exported
+	 * @return Returns the number of tasks exported
+	 */
+	int exportTasks(int maxTasks) {
+		LinkedList<Task<?>> exported;
+		try {
+			exported = computer.exportTasks(maxTasks);
+		} catch (RemoteException e) {
+			System.out
+					.println("Remote Exception received from the Computer");
+			computerFailed();
+			return 0;
+		}
+		for (Task<?> task : exported) {
+			if (cachedTaskList.containsKey(task.getTaskID())) {
+				synchronized (cachedTaskList) {
+					cachedTaskList.remove(task.getTaskID());
+					cachedTaskList.notifyAll();
 				}
+			} else {
+				space.putRemoteSuccessor(task.getSuccessorID(), this);
+			}
+			try {
+				space.put(task);
+			} catch (RemoteException e) {
+				e.printStackTrace();
 			}
 		}
+		return exported.size();
+	}
+
+	/**
+	 * Forwards the result of an exported task to the {@link system.Computer
+	 * Computer} holding its successor. The result is dropped if the Computer
+	 * is down, as the tasks dispatched to it are reassigned anyway.
+	 * 
+	 * @param result
+	 *            Represents the result of the exported task
+	 */
+	void forwardResult(Result<?> result) {
+		try {
+			computer.putResult(result);
+		} catch (RemoteException e) {
+			System.out.println("Machine Down");
+		}
 	}
 
 	/**
@@ -117,8 +298,9 @@ public class ComputerProxy extends UnicastRemoteObject implements Runnable,
 	}
 
 	@Override
-	public void setShared(Shared<?> shared) throws RemoteException {
-		space.setShared(shared);
+	public void setShared(UUID jobID, Shared<?> shared)
+			throws RemoteException {
+		space.setShared(jobID, shared);
 	}
 
 	@Override
@@ -129,16 +311,18 @@ public class ComputerProxy extends UnicastRemoteObject implements Runnable,
 	@Override
 	public void putGeneratedTasks(TaskContainer tc, UUID taskID) {
 		try {
-			cachedTaskList.remove(taskID);
+			taskCompleted(taskID);
 			final LinkedList<Task<?>> subTasks;
 			SuccessorTask<?> successorTask = tc.getSuccessorTask();
 			if (successorTask.getJointCounter() == 0) {
-				space.putPrunedResult(successorTask.getSuccessorID());
+				space.putPrunedResult(successorTask.getLevelNumber() - 1,
+						successorTask.getSuccessorID(),
+						successorTask.getJobID());
 			} else {
 				subTasks = tc.getChildTaskList();
 				space.putWaitingSuccessor(subTasks.get(0).getSuccessorID(),
 						successorTask);
-				Iterator<Task<?>> iterator = subTasks.iterator();
+				Iterator<Task<?>> iterator = subTasks.descendingIterator();
 				while (iterator.hasNext()) {
 					space.put(iterator.next());
 				}
@@ -151,15 +335,44 @@ public class ComputerProxy extends UnicastRemoteObject implements Runnable,
 	@Override
 	public void putResults(Result<?> result, UUID taskID) {
 		try {
-			cachedTaskList.remove(taskID);
+			taskCompleted(taskID);
 			space.putResult(result);
 		} catch (RemoteException e) {
 			e.printStackTrace();
 		}
 	}
 
-	public void setSharedBySpace(Shared<?> shared, boolean b)
+	@Override
+	public void putBatch(OutboundBatch batch) {
+		Iterator<UUID> taskIDs = batch.getContainerTaskIDs().iterator();
+		for (TaskContainer tc : batch.getTaskContainers()) {
+			putGeneratedTasks(tc, taskIDs.next());
+		}
+		taskIDs = batch.getResultTaskIDs().iterator();
+		for (Result<?> result : batch.getResults()) {
+			putResults(result, taskIDs.next());
+		}
+	}
+
+	public void setSharedBySpace(UUID jobID, Shared<?> shared, boolean b)
 			throws RemoteException {
-		computer.setShared(shared, b);
+		computer.setShared(jobID, shared, b);
+	}
+
+	public void removeJob(UUID jobID) throws RemoteException {
+		computer.removeJob(jobID);
+	}
+
+	@Override
+	public Object getJobData(UUID dataID) throws RemoteException {
+		return space.getJobData(dataID);
+	}
+
+	public void putJobData(UUID dataID, Object data) throws RemoteException {
+		computer.putJobData(dataID, data);
+	}
+
+	public void removeJobData(UUID dataID) throws RemoteException {
+		computer.removeJobData(dataID);
 	}
 }
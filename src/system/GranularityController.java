@@ -0,0 +1,184 @@
+package system;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import api.Task;
+import api.TaskImpl;
+
+/**
+ * Decides at runtime whether a {@link api.Task Task} is split into subtasks or
+ * executed sequentially. For every job, task class and decomposition level
+ * the Computer keeps a moving average of the time taken to execute such a task
+ * sequentially and of the number of subtasks it splits into. A level without
+ * measurements of its own is estimated from the level below, as its fan-out
+ * times the estimate for one subtask. A task is split while its estimate is
+ * above the target band and the subtasks would not fall below it; the band is
+ * read from the <code>computer.minTaskMillis</code> and
+ * <code>computer.maxTaskMillis</code> system properties. Until anything is
+ * known about its class within its job, a task falls back to its own
+ * {@link api.Task#isDecomposable() isDecomposable()}. The measurements are
+ * kept per job, as the cost of a level depends on the size of the problem,
+ * and are discarded when the job finishes.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+class GranularityController {
+	private static final double WEIGHT = 0.25;
+	private static final int MAX_ESTIMATE_DEPTH = 64;
+	private double minNanos;
+	private double maxNanos;
+	private ConcurrentHashMap<UUID, ConcurrentHashMap<Class<?>, ConcurrentHashMap<Integer, LevelStats>>> stats;
+
+	GranularityController() {
+		minNanos = Integer.getInteger("computer.minTaskMillis", 5) * 1e6;
+		maxNanos = Integer.getInteger("computer.maxTaskMillis", 50) * 1e6;
+		stats = new ConcurrentHashMap<UUID, ConcurrentHashMap<Class<?>, ConcurrentHashMap<Integer, LevelStats>>>();
+	}
+
+	/**
+	 * Decides whether a task should be split into subtasks
+	 *
+	 * @param task
+	 *            Represents the task about to be run
+	 * @return Returns true if the task should be split, false if it should be
+	 *         executed sequentially
+	 */
+	boolean shouldSplit(Task<?> task) {
+		if (!((TaskImpl<?>) task).isSplittable())
+			return false;
+		ConcurrentHashMap<Class<?>, ConcurrentHashMap<Integer, LevelStats>> classes = stats
+				.get(task.getJobID());
+		ConcurrentHashMap<Integer, LevelStats> levels = classes == null ? null
+				: classes.get(task.getClass());
+		if (levels == null)
+			return task.isDecomposable();
+		int level = task.getLevelNumber();
+		double estimate = estimate(levels, level, 0);
+		if (Double.isNaN(estimate))
+			return task.isDecomposable();
+		if (estimate <= maxNanos)
+			return false;
+		LevelStats levelStats = levels.get(level);
+		double fanOut = levelStats == null ? Double.NaN : levelStats
+				.getFanOut();
+		return Double.isNaN(fanOut) || estimate / fanOut >= minNanos;
+	}
+
+	/**
+	 * Records the time taken to execute a task sequentially
+	 *
+	 * @param task
+	 *            Represents the executed task
+	 * @param nanos
+	 *            Represents the execution time in nanoseconds
+	 */
+	void recordExecution(Task<?> task, long nanos) {
+		levelStats(task).recordExecution(nanos);
+	}
+
+	/**
+	 * Records the number of subtasks a task was split into
+	 *
+	 * @param task
+	 *            Represents the split task
+	 * @param fanOut
+	 *            Represents the number of subtasks generated
+	 */
+	void recordSplit(Task<?> task, int fanOut) {
+		levelStats(task).recordSplit(fanOut);
+	}
+
+	/**
+	 * Discards the measurements of a job which has finished
+	 *
+	 * @param jobID
+	 *            Represents the unique identifier of the finished job
+	 */
+	void removeJob(UUID jobID) {
+		stats.remove(jobID);
+	}
+
+	/**
+	 * Estimates the sequential execution time of a task at a level
+	 *
+	 * @param levels
+	 *            Represents the statistics of the task class
+	 * @param level
+	 *            Represents the level of the task
+	 * @param depth
+	 *            Represents how many levels have been descended so far
+	 * @return Returns the estimate in nanoseconds, or NaN if nothing is known
+	 */
+	private double estimate(ConcurrentHashMap<Integer, LevelStats> levels,
+			int level, int depth) {
+		LevelStats levelStats = levels.get(level);
+		if (levelStats == null)
+			return Double.NaN;
+		double executionNanos = levelStats.getExecutionNanos();
+		if (!Double.isNaN(executionNanos) || depth == MAX_ESTIMATE_DEPTH)
+			return executionNanos;
+		double fanOut = levelStats.getFanOut();
+		if (Double.isNaN(fanOut))
+			return Double.NaN;
+		return fanOut * estimate(levels, level + 1, depth + 1);
+	}
+
+	private LevelStats levelStats(Task<?> task) {
+		ConcurrentHashMap<Class<?>, ConcurrentHashMap<Integer, LevelStats>> classes = stats
+				.get(task.getJobID());
+		if (classes == null) {
+			classes = new ConcurrentHashMap<Class<?>, ConcurrentHashMap<Integer, LevelStats>>();
+			ConcurrentHashMap<Class<?>, ConcurrentHashMap<Integer, LevelStats>> existing = stats
+					.putIfAbsent(task.getJobID(), classes);
+			if (existing != null)
+				classes = existing;
+		}
+		ConcurrentHashMap<Integer, LevelStats> levels = classes.get(task
+				.getClass());
+		if (levels == null) {
+			levels = new ConcurrentHashMap<Integer, LevelStats>();
+			ConcurrentHashMap<Integer, LevelStats> existing = classes
+					.putIfAbsent(task.getClass(), levels);
+			if (existing != null)
+				levels = existing;
+		}
+		LevelStats levelStats = levels.get(task.getLevelNumber());
+		if (levelStats == null) {
+			levelStats = new LevelStats();
+			LevelStats existing = levels.putIfAbsent(task.getLevelNumber(),
+					levelStats);
+			if (existing != null)
+				levelStats = existing;
+		}
+		return levelStats;
+	}
+
+	/**
+	 * Represents the moving averages kept for one level of one task class of
+	 * one job
+	 */
+	private static class LevelStats {
+		private double executionNanos = Double.NaN;
+		private double fanOut = Double.NaN;
+
+		synchronized void recordExecution(long nanos) {
+			executionNanos = Double.isNaN(executionNanos) ? nanos
+					: executionNanos + WEIGHT * (nanos - executionNanos);
+		}
+
+		synchronized void recordSplit(int children) {
+			fanOut = Double.isNaN(fanOut) ? children : fanOut + WEIGHT
+					* (children - fanOut);
+		}
+
+		synchronized double getExecutionNanos() {
+			return executionNanos;
+		}
+
+		synchronized double getFanOut() {
+			return fanOut;
+		}
+	}
+}
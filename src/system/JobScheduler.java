@@ -0,0 +1,218 @@
+package system;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.UUID;
+
+import api.Task;
+import api.TaskImpl;
+
+/**
+ * Holds the ready {@link api.Task tasks} of every job running in the
+ * {@link api.Space Space} and hands them out in weighted round robin order.
+ * Each turn a job may dispatch as many tasks as its weight before the next job
+ * with ready tasks is served, so a long running job cannot starve short jobs
+ * submitted after it. Within a job, tasks are handed out in the order of the
+ * configured {@link system.ReadyQueue.Policy Policy}. A task whose lower bound
+ * can no longer beat the current Shared value of its job is not dispatched but
+ * handed back to the Space as pruned when it reaches the head of its queue.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+class JobScheduler {
+	private HashMap<UUID, ReadyQueue> readyTasks;
+	private HashMap<UUID, Integer> weights;
+	private HashMap<UUID, Shared<?>> bounds;
+	private ReadyQueue.Policy policy;
+	private ArrayList<UUID> rotation;
+	private int turn;
+	private int servedInTurn;
+	private int size;
+
+	JobScheduler() {
+		readyTasks = new HashMap<UUID, ReadyQueue>();
+		weights = new HashMap<UUID, Integer>();
+		bounds = new HashMap<UUID, Shared<?>>();
+		rotation = new ArrayList<UUID>();
+		policy = ReadyQueue.Policy.configured();
+	}
+
+	/**
+	 * Registers a job with the scheduler
+	 *
+	 * @param jobID
+	 *            Represents the unique identifier of the job
+	 * @param weight
+	 *            Represents the number of tasks the job may dispatch per turn
+	 */
+	synchronized void addJob(UUID jobID, int weight) {
+		if (!readyTasks.containsKey(jobID)) {
+			readyTasks.put(jobID, policy.newQueue());
+			rotation.add(jobID);
+		}
+		weights.put(jobID, Math.max(1, weight));
+	}
+
+	/**
+	 * Changes the share of dispatches a job receives
+	 *
+	 * @param jobID
+	 *            Represents the unique identifier of the job
+	 * @param weight
+	 *            Represents the number of tasks the job may dispatch per turn
+	 */
+	synchronized void setWeight(UUID jobID, int weight) {
+		if (weights.containsKey(jobID))
+			weights.put(jobID, Math.max(1, weight));
+	}
+
+	/**
+	 * Records a new Shared value of a job, against which its queued tasks are
+	 * pruned
+	 *
+	 * @param jobID
+	 *            Represents the unique identifier of the job
+	 * @param shared
+	 *            Represents the new Shared value of the job
+	 * @param improved
+	 *            Represents whether the value was found by the search rather
+	 *            than supplied with the job
+	 */
+	synchronized void setShared(UUID jobID, Shared<?> shared, boolean improved) {
+		bounds.put(jobID, shared);
+		ReadyQueue tasks = readyTasks.get(jobID);
+		if (improved && tasks != null)
+			tasks.boundImproved();
+	}
+
+	/**
+	 * Unregisters a finished job and drops any of its tasks still queued
+	 *
+	 * @param jobID
+	 *            Represents the unique identifier of the job
+	 */
+	synchronized void removeJob(UUID jobID) {
+		bounds.remove(jobID);
+		ReadyQueue tasks = readyTasks.remove(jobID);
+		if (tasks == null)
+			return;
+		size -= tasks.size();
+		weights.remove(jobID);
+		int index = rotation.indexOf(jobID);
+		rotation.remove(index);
+		if (index < turn) {
+			turn--;
+		} else if (index == turn) {
+			servedInTurn = 0;
+		}
+		if (turn >= rotation.size())
+			turn = 0;
+	}
+
+	/**
+	 * Queues a ready task under its job. Tasks of a job which is not
+	 * registered, such as stragglers of a job which has already been removed,
+	 * are dropped.
+	 *
+	 * @param task
+	 *            Represents the ready task
+	 * @return Returns true if the task was queued
+	 */
+	synchronized boolean put(Task<?> task) {
+		ReadyQueue tasks = readyTasks.get(task.getJobID());
+		if (tasks == null)
+			return false;
+		tasks.add(task);
+		size++;
+		notifyAll();
+		return true;
+	}
+
+	/**
+	 * Validates whether a job is registered with the scheduler
+	 *
+	 * @param jobID
+	 *            Represents the unique identifier of the job
+	 * @return Returns true if the job has been added and not removed since
+	 */
+	synchronized boolean hasJob(UUID jobID) {
+		return readyTasks.containsKey(jobID);
+	}
+
+	/**
+	 * Validates whether no task is waiting to be dispatched
+	 *
+	 * @return Returns true if no task of any job is queued
+	 */
+	synchronized boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Takes up to the given number of ready tasks, waiting up to the given
+	 * time for a task to be queued. Tasks pruned on the way are moved to the
+	 * given list instead, so the batch comes back empty if the wait timed out
+	 * or every queued task was pruned.
+	 *
+	 * @param maxTasks
+	 *            Represents the maximum number of tasks to be taken
+	 * @param pruned
+	 *            Represents the list receiving the pruned tasks
+	 * @param timeoutMillis
+	 *            Represents the longest time to wait for a ready task
+	 * @return Returns the ready tasks in dispatch order
+	 * @throws InterruptedException
+	 */
+	synchronized LinkedList<Task<?>> take(int maxTasks,
+			LinkedList<Task<?>> pruned, long timeoutMillis)
+			throws InterruptedException {
+		if (size == 0)
+			wait(timeoutMillis);
+		LinkedList<Task<?>> batch = new LinkedList<Task<?>>();
+		while (size > 0 && batch.size() < maxTasks) {
+			Task<?> task = next();
+			if (isPrunable(task)) {
+				pruned.add(task);
+			} else {
+				batch.add(task);
+			}
+		}
+		return batch;
+	}
+
+	/**
+	 * Validates whether a task can no longer improve on the Shared value of its
+	 * job
+	 *
+	 * @param task
+	 *            Represents the task about to be dispatched
+	 * @return Returns true if the task can be discarded
+	 */
+	private boolean isPrunable(Task<?> task) {
+		Shared<?> shared = bounds.get(task.getJobID());
+		return shared != null && task instanceof TaskImpl
+				&& ((TaskImpl<?>) task).isPrunable(shared);
+	}
+
+	/**
+	 * Picks the next task in weighted round robin order. Must only be called
+	 * while there is at least one ready task.
+	 *
+	 * @return Returns the next task to be dispatched
+	 */
+	private Task<?> next() {
+		while (true) {
+			UUID jobID = rotation.get(turn);
+			ReadyQueue tasks = readyTasks.get(jobID);
+			if (tasks.size() > 0 && servedInTurn < weights.get(jobID)) {
+				servedInTurn++;
+				size--;
+				return tasks.poll();
+			}
+			turn = (turn + 1) % rotation.size();
+			servedInTurn = 0;
+		}
+	}
+}
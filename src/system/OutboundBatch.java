@@ -0,0 +1,103 @@
+package system;
+
+import java.io.Serializable;
+import java.util.LinkedList;
+import java.util.UUID;
+
+import tasks.TaskContainer;
+import api.Result;
+
+/**
+ * Represents the {@link api.Result results} and generated
+ * {@link tasks.TaskContainer TaskContainers} a {@link system.Computer Computer}
+ * sends to the Compute {@link api.Space Space} in a single remote call.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+public class OutboundBatch implements Serializable {
+	private static final long serialVersionUID = -3410768436310785262L;
+	private LinkedList<TaskContainer> taskContainers;
+	private LinkedList<UUID> containerTaskIDs;
+	private LinkedList<Result<?>> results;
+	private LinkedList<UUID> resultTaskIDs;
+
+	public OutboundBatch() {
+		taskContainers = new LinkedList<TaskContainer>();
+		containerTaskIDs = new LinkedList<UUID>();
+		results = new LinkedList<Result<?>>();
+		resultTaskIDs = new LinkedList<UUID>();
+	}
+
+	/**
+	 * Adds the subtasks and successor generated by decomposing a task
+	 *
+	 * @param tc
+	 *            Represents the generated subtasks and their successor
+	 * @param taskID
+	 *            Represents the unique ID of the decomposed task
+	 */
+	void addGeneratedTasks(TaskContainer tc, UUID taskID) {
+		taskContainers.add(tc);
+		containerTaskIDs.add(taskID);
+	}
+
+	/**
+	 * Adds the result of an executed task
+	 *
+	 * @param result
+	 *            Represents the result of the executed task
+	 * @param taskID
+	 *            Represents the unique ID of the executed task
+	 */
+	void addResult(Result<?> result, UUID taskID) {
+		results.add(result);
+		resultTaskIDs.add(taskID);
+	}
+
+	/**
+	 * Gets the generated subtasks and successors in this batch
+	 *
+	 * @return Returns the generated subtasks and successors
+	 */
+	public LinkedList<TaskContainer> getTaskContainers() {
+		return taskContainers;
+	}
+
+	/**
+	 * Gets the unique IDs of the decomposed tasks, in the same order as
+	 * {@link #getTaskContainers()}
+	 *
+	 * @return Returns the unique IDs of the decomposed tasks
+	 */
+	public LinkedList<UUID> getContainerTaskIDs() {
+		return containerTaskIDs;
+	}
+
+	/**
+	 * Gets the results in this batch
+	 *
+	 * @return Returns the results of the executed tasks
+	 */
+	public LinkedList<Result<?>> getResults() {
+		return results;
+	}
+
+	/**
+	 * Gets the unique IDs of the executed tasks, in the same order as
+	 * {@link #getResults()}
+	 *
+	 * @return Returns the unique IDs of the executed tasks
+	 */
+	public LinkedList<UUID> getResultTaskIDs() {
+		return resultTaskIDs;
+	}
+
+	/**
+	 * Validates whether the batch carries anything
+	 *
+	 * @return Returns true if the batch is empty
+	 */
+	public boolean isEmpty() {
+		return taskContainers.isEmpty() && results.isEmpty();
+	}
+}
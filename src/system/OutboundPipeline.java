@@ -0,0 +1,109 @@
+package system;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import tasks.TaskContainer;
+import api.Result;
+
+/**
+ * Represents a thread which sends the {@link api.Result results} and generated
+ * {@link tasks.TaskContainer TaskContainers} of a {@link system.Computer
+ * Computer} to the Compute {@link api.Space Space}. Whatever is queued while a
+ * remote call is in progress is coalesced into the next
+ * {@link system.OutboundBatch OutboundBatch}. The queue is bounded, so worker
+ * threads block when the Space falls behind instead of piling up results.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+class OutboundPipeline implements Runnable {
+	private static final int QUEUE_CAPACITY = 4096;
+	private static final int MAX_BATCH_SIZE = 256;
+	private Computer2Space spaceProxy;
+	private ArrayBlockingQueue<Outbound> outboundQueue;
+	private Thread t;
+
+	/**
+	 *
+	 * @param spaceProxy
+	 *            Represents the proxy of the {@link api.Space Space} to which
+	 *            batches are sent
+	 */
+	OutboundPipeline(Computer2Space spaceProxy) {
+		this.spaceProxy = spaceProxy;
+		outboundQueue = new ArrayBlockingQueue<Outbound>(QUEUE_CAPACITY);
+		t = new Thread(this);
+		t.start();
+	}
+
+	/**
+	 * Queues the subtasks and successor generated by decomposing a task. Blocks
+	 * while the pipeline is full.
+	 *
+	 * @param tc
+	 *            Represents the generated subtasks and their successor
+	 * @param taskID
+	 *            Represents the unique ID of the decomposed task
+	 * @throws InterruptedException
+	 */
+	void putGeneratedTasks(TaskContainer tc, UUID taskID)
+			throws InterruptedException {
+		outboundQueue.put(new Outbound(tc, null, taskID));
+	}
+
+	/**
+	 * Queues the result of an executed task. Blocks while the pipeline is full.
+	 *
+	 * @param result
+	 *            Represents the result of the executed task
+	 * @param taskID
+	 *            Represents the unique ID of the executed task
+	 * @throws InterruptedException
+	 */
+	void putResult(Result<?> result, UUID taskID) throws InterruptedException {
+		outboundQueue.put(new Outbound(null, result, taskID));
+	}
+
+	@Override
+	public void run() {
+		ArrayList<Outbound> drained = new ArrayList<Outbound>(MAX_BATCH_SIZE);
+		while (true) {
+			try {
+				drained.add(outboundQueue.take());
+				outboundQueue.drainTo(drained, MAX_BATCH_SIZE - 1);
+				OutboundBatch batch = new OutboundBatch();
+				for (Outbound outbound : drained) {
+					if (outbound.tc != null) {
+						batch.addGeneratedTasks(outbound.tc, outbound.taskID);
+					} else {
+						batch.addResult(outbound.result, outbound.taskID);
+					}
+				}
+				drained.clear();
+				spaceProxy.putBatch(batch);
+			} catch (InterruptedException e) {
+				return;
+			} catch (RemoteException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Represents one queued result or set of generated tasks
+	 */
+	private static class Outbound {
+		private TaskContainer tc;
+		private Result<?> result;
+		private UUID taskID;
+
+		Outbound(TaskContainer tc, Result<?> result, UUID taskID) {
+			this.tc = tc;
+			this.result = result;
+			this.taskID = taskID;
+		}
+	}
+}
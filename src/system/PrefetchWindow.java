@@ -0,0 +1,74 @@
+package system;
+
+/**
+ * Sizes the number of {@link api.Task tasks} a {@link system.ComputerProxy
+ * ComputerProxy} keeps outstanding on its remote {@link system.Computer
+ * Computer}. The window covers every worker thread of the Computer plus the
+ * tasks it completes during one dispatch round trip, so that the Computer does
+ * not idle waiting on the network and a slow Computer is not flooded with tasks
+ * other Computers could be executing.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+class PrefetchWindow {
+	private static final double SMOOTHING = 0.2;
+	private static final int MAX_WINDOW = 1024;
+	private int workerCount;
+	private double roundTripTime;
+	private double completionInterval;
+	private long lastCompletionTime;
+
+	/**
+	 *
+	 * @param workerCount
+	 *            Represents the number of threads executing tasks on the
+	 *            remote {@link system.Computer Computer}
+	 */
+	PrefetchWindow(int workerCount) {
+		this.workerCount = Math.max(1, workerCount);
+	}
+
+	/**
+	 * Records the time taken by one dispatch of tasks to the remote
+	 * {@link system.Computer Computer}
+	 *
+	 * @param elapsedTime
+	 *            Represents the round trip time in nanoseconds
+	 */
+	synchronized void recordRoundTrip(long elapsedTime) {
+		roundTripTime = smooth(roundTripTime, elapsedTime);
+	}
+
+	/**
+	 * Records the completion of a task by the remote {@link system.Computer
+	 * Computer}, which is used to measure its task throughput
+	 */
+	synchronized void recordCompletion() {
+		long now = System.nanoTime();
+		if (lastCompletionTime != 0) {
+			completionInterval = smooth(completionInterval, now
+					- lastCompletionTime);
+		}
+		lastCompletionTime = now;
+	}
+
+	/**
+	 * Gets the number of tasks which may be outstanding on the remote
+	 * {@link system.Computer Computer}
+	 *
+	 * @return Returns the current size of the prefetch window
+	 */
+	synchronized int size() {
+		if (completionInterval == 0)
+			return workerCount;
+		double inFlight = Math.ceil(roundTripTime / completionInterval);
+		return (int) Math.min(MAX_WINDOW, workerCount + inFlight);
+	}
+
+	private double smooth(double average, double sample) {
+		if (average == 0)
+			return sample;
+		return average + SMOOTHING * (sample - average);
+	}
+}
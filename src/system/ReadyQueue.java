@@ -0,0 +1,216 @@
+package system;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import api.Task;
+import api.TaskImpl;
+
+/**
+ * Represents the ready {@link api.Task tasks} of one job waiting in the
+ * {@link api.Space Space}. The order in which tasks leave the queue is decided
+ * by its {@link ReadyQueue.Policy Policy}, which is read from the
+ * <code>space.readyQueuePolicy</code> system property.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+interface ReadyQueue {
+
+	/**
+	 * Queues a ready task
+	 *
+	 * @param task
+	 *            Represents the ready task
+	 */
+	void add(Task<?> task);
+
+	/**
+	 * Removes the next task to be dispatched
+	 *
+	 * @return Returns the next task, or null if the queue is empty
+	 */
+	Task<?> poll();
+
+	/**
+	 * Represents the number of queued tasks
+	 *
+	 * @return Returns the number of queued tasks
+	 */
+	int size();
+
+	/**
+	 * Notifies the queue that the search of its job has found a new upper
+	 * bound
+	 */
+	void boundImproved();
+
+	/**
+	 * Represents the orders in which ready tasks can be dispatched
+	 */
+	enum Policy {
+		/**
+		 * Most recently generated task first, which keeps the decomposition
+		 * depth first and the number of queued tasks small
+		 */
+		LIFO,
+		/**
+		 * Task with the smallest lower bound first
+		 */
+		BEST_FIRST,
+		/**
+		 * Depth first until the search has found an upper bound of its own,
+		 * best first from then on
+		 */
+		HYBRID;
+
+		/**
+		 * Gets the policy configured for the Space
+		 *
+		 * @return Returns the policy named by the
+		 *         <code>space.readyQueuePolicy</code> system property, LIFO
+		 *         if it is not set
+		 */
+		static Policy configured() {
+			return valueOf(System.getProperty("space.readyQueuePolicy", "LIFO"));
+		}
+
+		/**
+		 * Creates an empty ready queue following this policy
+		 *
+		 * @return Returns the new ready queue
+		 */
+		ReadyQueue newQueue() {
+			switch (this) {
+			case BEST_FIRST:
+				return new BestFirst();
+			case HYBRID:
+				return new Hybrid();
+			default:
+				return new Lifo();
+			}
+		}
+	}
+
+	/**
+	 * Represents a ready queue handing out the most recently queued task first
+	 */
+	static class Lifo implements ReadyQueue {
+		private ArrayDeque<Task<?>> tasks = new ArrayDeque<Task<?>>();
+
+		public void add(Task<?> task) {
+			tasks.addLast(task);
+		}
+
+		public Task<?> poll() {
+			return tasks.pollLast();
+		}
+
+		/**
+		 * Removes the least recently queued task
+		 *
+		 * @return Returns the oldest task, or null if the queue is empty
+		 */
+		Task<?> pollOldest() {
+			return tasks.pollFirst();
+		}
+
+		public int size() {
+			return tasks.size();
+		}
+
+		public void boundImproved() {
+		}
+	}
+
+	/**
+	 * Represents a ready queue handing out the task with the smallest lower
+	 * bound first. Tasks without a lower bound come before tasks with one, and
+	 * ties are broken most recently queued first, so jobs that do not compute
+	 * bounds are still decomposed depth first.
+	 */
+	static class BestFirst implements ReadyQueue {
+		private PriorityQueue<Entry> tasks = new PriorityQueue<Entry>(64,
+				new Comparator<Entry>() {
+					public int compare(Entry e1, Entry e2) {
+						if (e1.bound != null && e2.bound != null) {
+							int order = e1.bound.compareTo(e2.bound);
+							if (order != 0)
+								return order;
+						} else if (e1.bound != e2.bound) {
+							return e1.bound == null ? -1 : 1;
+						}
+						return e1.sequence > e2.sequence ? -1
+								: (e1.sequence < e2.sequence ? 1 : 0);
+					}
+				});
+		private long sequence;
+
+		public void add(Task<?> task) {
+			Comparable<Object> bound = null;
+			if (task instanceof TaskImpl)
+				bound = ((TaskImpl<?>) task).getLowerBound();
+			tasks.add(new Entry(task, bound, sequence++));
+		}
+
+		public Task<?> poll() {
+			Entry entry = tasks.poll();
+			return entry == null ? null : entry.task;
+		}
+
+		public int size() {
+			return tasks.size();
+		}
+
+		public void boundImproved() {
+		}
+
+		/**
+		 * Represents a queued task together with the key it is ordered by
+		 */
+		private static class Entry {
+			private Task<?> task;
+			private Comparable<Object> bound;
+			private long sequence;
+
+			Entry(Task<?> task, Comparable<Object> bound, long sequence) {
+				this.task = task;
+				this.bound = bound;
+				this.sequence = sequence;
+			}
+		}
+	}
+
+	/**
+	 * Represents a ready queue which dives depth first until the first upper
+	 * bound found by the search arrives and then moves its tasks into a best
+	 * first order
+	 */
+	static class Hybrid implements ReadyQueue {
+		private Lifo depthFirst = new Lifo();
+		private ReadyQueue tasks = depthFirst;
+
+		public void add(Task<?> task) {
+			tasks.add(task);
+		}
+
+		public Task<?> poll() {
+			return tasks.poll();
+		}
+
+		public int size() {
+			return tasks.size();
+		}
+
+		public void boundImproved() {
+			if (tasks != depthFirst)
+				return;
+			tasks = new BestFirst();
+			Task<?> task;
+			while ((task = depthFirst.pollOldest()) != null)
+				tasks.add(task);
+			depthFirst = null;
+		}
+	}
+}
@@ -17,6 +17,9 @@ public class ResultImpl<T> implements Result<T>, Serializable {
 	private int levelNumber;
 	private T taskReturnValue;
 	UUID successorID;
+	UUID jobID;
+	private Shared<?> shared;
+	private long sharedMillis = -1;
 
 	/**
 	 * 
@@ -73,4 +76,45 @@ public class ResultImpl<T> implements Result<T>, Serializable {
 		return successorID;
 	}
 
+	/**
+	 * Represents the unique identifier of the job of the task which produced
+	 * this result.
+	 * 
+	 * @return Returns the unique identifier of the job
+	 */
+
+	public UUID getJobID() {
+		return jobID;
+	}
+
+	public void setJobID(UUID jobID) {
+		this.jobID = jobID;
+	}
+
+	@Override
+	public Shared<?> getShared() {
+		return shared;
+	}
+
+	/**
+	 * Attaches the final Shared value of the job to the result of the whole
+	 * job
+	 * 
+	 * @param shared
+	 *            Represents the last Shared value of the job
+	 * @param sharedMillis
+	 *            Represents the milliseconds from the submission of the job
+	 *            to the last improvement of the value, or -1 if it was never
+	 *            improved
+	 */
+	void setShared(Shared<?> shared, long sharedMillis) {
+		this.shared = shared;
+		this.sharedMillis = sharedMillis;
+	}
+
+	@Override
+	public long getSharedMillis() {
+		return sharedMillis;
+	}
+
 }
@@ -0,0 +1,99 @@
+package system;
+
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import api.Result;
+import api.SuccessorTask;
+
+/**
+ * Represents a thread routing the {@link api.Result results} of one shard of
+ * successor IDs to their waiting {@link api.SuccessorTask successors}. All
+ * results for a successor are routed by the same ResultRouter, so a successor
+ * only ever sees one thread delivering its arguments.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+class ResultRouter implements Runnable {
+	private SpaceImpl space;
+	private LinkedBlockingQueue<Result<?>> resultList;
+	private Thread t;
+
+	/**
+	 *
+	 * @param space
+	 *            Represents the {@link api.Space Space} holding the waiting
+	 *            successors
+	 */
+	ResultRouter(SpaceImpl space) {
+		this.space = space;
+		resultList = new LinkedBlockingQueue<Result<?>>();
+		t = new Thread(this);
+		t.start();
+	}
+
+	/**
+	 * Queues a result for routing to its successor
+	 *
+	 * @param result
+	 *            Represents the result of a task
+	 */
+	void putResult(Result<?> result) {
+		resultList.add(result);
+	}
+
+	@Override
+	public void run() {
+		ResultImpl<?> partialResult;
+		while (true) {
+			try {
+				partialResult = (ResultImpl<?>) resultList.take();
+				route(partialResult);
+			} catch (InterruptedException e) {
+				return;
+			} catch (Exception e) {
+				System.out.println("Space Exception");
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Delivers the result to its successor, handing the successor to the
+	 * {@link system.SpaceExecutor SpaceExecutor} once it has collected all of
+	 * its arguments. Results for successors held by a {@link system.Computer
+	 * Computer} are forwarded to that Computer. Results whose successor is
+	 * gone, because its job has been removed, are dropped.
+	 *
+	 * @param partialResult
+	 *            Represents the result of a task
+	 */
+	private void route(ResultImpl<?> partialResult) {
+		if (partialResult.getLevelNumber() == -1) {
+			space.putFinalResult(partialResult);
+			return;
+		}
+		UUID successorID = partialResult.getSuccessorID();
+		ComputerProxy owner = space.takeRemoteSuccessor(successorID);
+		if (owner != null) {
+			owner.forwardResult(partialResult);
+			return;
+		}
+		SuccessorTask<?> successorTask = space.getWaitingSuccessor(successorID);
+		if (successorTask == null)
+			return;
+		SuccessorTask<?> readyTask = successorTask.putArguments(partialResult);
+		if (readyTask != null) {
+			space.removeSuccessor(successorID);
+			space.spaceExecutor.putIntoExecutor(readyTask);
+		}
+	}
+
+	/**
+	 * Stops routing results
+	 */
+	void shutdown() {
+		t.interrupt();
+	}
+}
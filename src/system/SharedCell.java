@@ -0,0 +1,44 @@
+package system;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Represents the {@link system.Shared Shared} value of one job held by a
+ * Computer. The value only ever moves to a newer one; proposals from the
+ * Computer's own tasks and broadcasts from the Space are merged by a
+ * compare-and-set loop, so tasks polling the value in the middle of a long
+ * execution never wait on a lock.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+class SharedCell {
+	private AtomicReference<Shared<?>> value = new AtomicReference<Shared<?>>();
+
+	/**
+	 * Gets the current value
+	 *
+	 * @return Returns the newest value offered so far, or null if none has
+	 *         been offered
+	 */
+	Shared<?> get() {
+		return value.get();
+	}
+
+	/**
+	 * Replaces the current value if the proposed one is newer
+	 *
+	 * @param proposed
+	 *            Represents the proposed value
+	 * @return Returns true if the proposed value became the current value
+	 */
+	boolean offer(Shared<?> proposed) {
+		while (true) {
+			Shared<?> current = value.get();
+			if (current != null && !proposed.isNewerThan(current))
+				return false;
+			if (value.compareAndSet(current, proposed))
+				return true;
+		}
+	}
+}
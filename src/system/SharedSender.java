@@ -0,0 +1,85 @@
+package system;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.UUID;
+
+/**
+ * Represents a thread which forwards newly accepted {@link system.Shared
+ * Shared} values. Only the newest pending value of every job is kept, so a
+ * burst of improvements made while a remote call is in progress costs one
+ * further call rather than one thread and one call each.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+abstract class SharedSender implements Runnable {
+	private LinkedHashMap<UUID, Shared<?>> pending;
+	private Thread t;
+
+	SharedSender() {
+		pending = new LinkedHashMap<UUID, Shared<?>>();
+		t = new Thread(this);
+		t.start();
+	}
+
+	/**
+	 * Queues a Shared value to be sent, replacing a pending value of the same
+	 * job unless that one is newer
+	 *
+	 * @param jobID
+	 *            Represents the unique identifier of the job
+	 * @param shared
+	 *            Represents the Shared value of the job
+	 */
+	synchronized void offer(UUID jobID, Shared<?> shared) {
+		Shared<?> existing = pending.get(jobID);
+		if (existing != null && !shared.isNewerThan(existing))
+			return;
+		pending.put(jobID, shared);
+		notify();
+	}
+
+	/**
+	 * Drops the pending value of a job which has been removed
+	 *
+	 * @param jobID
+	 *            Represents the unique identifier of the job
+	 */
+	synchronized void removeJob(UUID jobID) {
+		pending.remove(jobID);
+	}
+
+	/**
+	 * Sends a Shared value
+	 *
+	 * @param jobID
+	 *            Represents the unique identifier of the job
+	 * @param shared
+	 *            Represents the Shared value of the job
+	 */
+	abstract void send(UUID jobID, Shared<?> shared);
+
+	@Override
+	public void run() {
+		ArrayList<Entry<UUID, Shared<?>>> drained = new ArrayList<Entry<UUID, Shared<?>>>();
+		while (true) {
+			synchronized (this) {
+				while (pending.isEmpty()) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				drained.addAll(pending.entrySet());
+				pending = new LinkedHashMap<UUID, Shared<?>>();
+			}
+			for (Entry<UUID, Shared<?>> entry : drained) {
+				send(entry.getKey(), entry.getValue());
+			}
+			drained.clear();
+		}
+	}
+}
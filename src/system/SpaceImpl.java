@@ -1,22 +1,26 @@
 package system;
 
+import java.io.Serializable;
 import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
 import java.sql.Timestamp;
 import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map.Entry;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import tasks.TaskContainer;
 
+import api.DataHandle;
 import api.Result;
 import api.Space;
 import api.Task;
+import api.TaskImpl;
 import api.SuccessorTask;
 
 /**
@@ -28,28 +32,51 @@ import api.SuccessorTask;
  */
 
 public class SpaceImpl extends UnicastRemoteObject implements Space,
-		Computer2Space, Runnable {
+		Computer2Space {
 	public final String SERVICE_NAME = "Space";
-	LinkedBlockingDeque<Task<?>> readyTaskList;
-	LinkedBlockingQueue<Result<?>> resultList;
+	private static final UUID DEFAULT_JOB_ID = new UUID(0, 0);
+	JobScheduler jobScheduler;
+	ResultRouter[] resultRouters;
 	ConcurrentMap<UUID, SuccessorTask<?>> waitingSuccessorsMap;
 	ConcurrentHashMap<Computer, ComputerProxy> registeredComputerList;
-	LinkedBlockingQueue<Result<?>> finalResult;
-	Shared<?> shared = null;
-	Thread t;
+	ConcurrentHashMap<UUID, LinkedBlockingQueue<Result<?>>> jobResults;
+	ConcurrentHashMap<UUID, Shared<?>> sharedMap;
+	private ConcurrentHashMap<UUID, Long> jobStartTimes;
+	private ConcurrentHashMap<UUID, Long> jobSharedMillis;
+	private ConcurrentHashMap<UUID, RemoteSuccessor> remoteSuccessors;
+	private ConcurrentHashMap<UUID, Object> jobData;
+	private long exportPollMillis;
 	private Registry registry;
 	SpaceExecutor spaceExecutor;
+	private SharedSender sharedSender;
 
 	public SpaceImpl() throws RemoteException {
 		super();
-		readyTaskList = new LinkedBlockingDeque<Task<?>>();
-		resultList = new LinkedBlockingQueue<Result<?>>();
+		jobScheduler = new JobScheduler();
 		registeredComputerList = new ConcurrentHashMap<Computer, ComputerProxy>();
 		waitingSuccessorsMap = new ConcurrentHashMap<UUID, SuccessorTask<?>>();
-		finalResult = new LinkedBlockingQueue<Result<?>>();
-		t = new Thread(this);
-		t.start();
+		jobResults = new ConcurrentHashMap<UUID, LinkedBlockingQueue<Result<?>>>();
+		jobResults.put(DEFAULT_JOB_ID, new LinkedBlockingQueue<Result<?>>());
+		jobScheduler.addJob(DEFAULT_JOB_ID, 1);
+		sharedMap = new ConcurrentHashMap<UUID, Shared<?>>();
+		jobStartTimes = new ConcurrentHashMap<UUID, Long>();
+		jobSharedMillis = new ConcurrentHashMap<UUID, Long>();
+		remoteSuccessors = new ConcurrentHashMap<UUID, RemoteSuccessor>();
+		jobData = new ConcurrentHashMap<UUID, Object>();
+		exportPollMillis = Long.getLong("space.exportPollMillis", 50);
 		spaceExecutor = new SpaceExecutor(this);
+		sharedSender = new SharedSender() {
+			@Override
+			void send(UUID jobID, Shared<?> shared) {
+				broadcastShared(jobID, shared);
+			}
+		};
+		resultRouters = new ResultRouter[Integer.getInteger(
+				"space.resultRouters", Runtime.getRuntime()
+						.availableProcessors())];
+		for (int i = 0; i < resultRouters.length; i++) {
+			resultRouters[i] = new ResultRouter(this);
+		}
 	}
 
 	private static final long serialVersionUID = 2L;
@@ -59,6 +86,12 @@ public class SpaceImpl extends UnicastRemoteObject implements Space,
 		String cpServiceName = UUID.randomUUID().toString();
 		ComputerProxy cp = new ComputerProxy(computer, this, cpServiceName,
 				getRegistry());
+		for (Entry<UUID, Shared<?>> entry : sharedMap.entrySet()) {
+			cp.setSharedBySpace(entry.getKey(), entry.getValue(), true);
+		}
+		for (Entry<UUID, Object> entry : jobData.entrySet()) {
+			cp.putJobData(entry.getKey(), entry.getValue());
+		}
 		registeredComputerList.put(computer, cp);
 		return cpServiceName;
 	}
@@ -70,7 +103,8 @@ public class SpaceImpl extends UnicastRemoteObject implements Space,
 	/**
 	 * Defines how the client decomposes the problem into a set of
 	 * {@link api.Task Task} objects, and passes them to the {@link api.Space
-	 * Space}
+	 * Space}. Tasks put by clients without a job belong to a default job whose
+	 * results are retrieved by {@link #take()}.
 	 * 
 	 * @param task
 	 *            Represents {@link api.Task Task} to be executed.
@@ -82,45 +116,139 @@ public class SpaceImpl extends UnicastRemoteObject implements Space,
 
 	@Override
 	public void put(Task<?> task) throws java.rmi.RemoteException {
-		try {
-			readyTaskList.put(task);
-		} catch (InterruptedException e) {
-			e.printStackTrace();
-		}
+		if (task.getJobID() == null)
+			((TaskImpl<?>) task).setJobID(DEFAULT_JOB_ID);
+		jobScheduler.put(task);
 	}
 
 	/**
-	 * Defines how the client retrieves the associated {@link api.Result Result}
-	 * objects via the take method. This method blocks until a result is
-	 * available to return to the client.
+	 * Puts the result of the root task of a job into the result queue of that
+	 * job, together with the last Shared value of the job and the time it
+	 * took to reach it
 	 * 
-	 * @return Returns the associated {@link api.Result Result} objects for the
-	 *         submitted {@link api.Task Task} Objects.
-	 * @throws java.rmi.RemoteException
-	 *             Throws RemoteException when there is a problem in reading the
-	 *             results from the remote Compute Space
+	 * @param result
+	 *            Represents the result of the job
 	 */
+	public void putFinalResult(Result<?> result) {
+		UUID jobID = ((ResultImpl<?>) result).getJobID();
+		LinkedBlockingQueue<Result<?>> resultQueue = jobResults.get(jobID);
+		if (resultQueue == null)
+			return;
+		Long sharedMillis = jobSharedMillis.get(jobID);
+		((ResultImpl<?>) result).setShared(sharedMap.get(jobID),
+				sharedMillis == null ? -1 : sharedMillis);
+		resultQueue.add(result);
+	}
 
-	public Result<?> takeResult() throws RemoteException {
+	public Result<?> take() throws RemoteException {
 		try {
-			return (Result<?>) resultList.take();
+			return jobResults.get(DEFAULT_JOB_ID).take();
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		}
 		return null;
 	}
 
-	public void putFinalResult(Result<?> result) throws RemoteException {
-		finalResult.add(result);
+	@Override
+	public UUID submit(Task<?> task, Shared<?> shared) throws RemoteException {
+		UUID jobID = UUID.randomUUID();
+		((TaskImpl<?>) task).setJobID(jobID);
+		jobResults.put(jobID, new LinkedBlockingQueue<Result<?>>());
+		jobStartTimes.put(jobID, System.nanoTime());
+		jobScheduler.addJob(jobID, 1);
+		if (shared != null) {
+			sharedMap.put(jobID, shared);
+			jobScheduler.setShared(jobID, shared, false);
+			broadcastShared(jobID, shared);
+		}
+		put(task);
+		return jobID;
 	}
 
-	public Result<?> take() throws RemoteException {
+	@Override
+	public Result<?> take(UUID jobID) throws RemoteException {
+		LinkedBlockingQueue<Result<?>> resultQueue = jobResults.get(jobID);
+		if (resultQueue == null)
+			throw new IllegalArgumentException("Unknown job " + jobID
+					+ ", or its result has already been taken");
+		Result<?> result;
 		try {
-			return finalResult.take();
+			result = resultQueue.take();
 		} catch (InterruptedException e) {
 			e.printStackTrace();
+			return null;
+		}
+		removeJob(jobID);
+		return result;
+	}
+
+	@Override
+	public void setJobWeight(UUID jobID, int weight) throws RemoteException {
+		jobScheduler.setWeight(jobID, weight);
+	}
+
+	@Override
+	public <T extends Serializable> DataHandle<T> putJobData(T data)
+			throws RemoteException {
+		UUID dataID = UUID.randomUUID();
+		jobData.put(dataID, data);
+		for (ComputerProxy cp : registeredComputerList.values()) {
+			try {
+				cp.putJobData(dataID, data);
+			} catch (RemoteException e) {
+				System.out.println("Machine Down");
+			}
+		}
+		return new DataHandle<T>(dataID);
+	}
+
+	@Override
+	public void removeJobData(DataHandle<?> handle) throws RemoteException {
+		UUID dataID = handle.getDataID();
+		jobData.remove(dataID);
+		for (ComputerProxy cp : registeredComputerList.values()) {
+			try {
+				cp.removeJobData(dataID);
+			} catch (RemoteException e) {
+				System.out.println("Machine Down");
+			}
+		}
+	}
+
+	@Override
+	public Object getJobData(UUID dataID) throws RemoteException {
+		return jobData.get(dataID);
+	}
+
+	/**
+	 * Discards the result queue, Shared object and waiting successors of a
+	 * finished job, both in the Space and in every registered
+	 * {@link system.Computer Computer}. Tasks and results of the job still in
+	 * flight are dropped when they reach the Space.
+	 * 
+	 * @param jobID
+	 *            Represents the unique identifier of the finished job
+	 */
+	private void removeJob(UUID jobID) {
+		jobResults.remove(jobID);
+		sharedMap.remove(jobID);
+		jobStartTimes.remove(jobID);
+		jobSharedMillis.remove(jobID);
+		sharedSender.removeJob(jobID);
+		jobScheduler.removeJob(jobID);
+		Iterator<SuccessorTask<?>> successors = waitingSuccessorsMap.values()
+				.iterator();
+		while (successors.hasNext()) {
+			if (jobID.equals(successors.next().getJobID()))
+				successors.remove();
+		}
+		for (ComputerProxy cp : registeredComputerList.values()) {
+			try {
+				cp.removeJob(jobID);
+			} catch (RemoteException e) {
+				System.out.println("Machine Down");
+			}
 		}
-		return null;
 	}
 
 	/**
@@ -159,37 +287,159 @@ public class SpaceImpl extends UnicastRemoteObject implements Space,
 
 	public Task<?> takeTask() throws RemoteException {
 		try {
-			return readyTaskList.takeLast();
+			return takeTasks(null, 1).getFirst();
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		}
 		return null;
 	}
 
+	/**
+	 * Defines how the {@link system.ComputerProxy ComputerProxy} takes a batch
+	 * of {@link api.Task Task} objects for execution by remote
+	 * {@link system.Computer Computer}. Blocks until at least one task is
+	 * available and never waits for the batch to fill up. Tasks of concurrent
+	 * jobs are interleaved according to the weights of the jobs. Tasks found
+	 * to be prunable are reported to their successors as empty results
+	 * instead of being dispatched. While no task is ready, the other Computers
+	 * are periodically asked to export part of their local work.
+	 * 
+	 * @param requester
+	 *            Represents the proxy of the Computer asking for tasks
+	 * @param maxTasks
+	 *            Represents the maximum number of tasks to be taken
+	 * @return Returns the {@link api.Task Tasks} to be executed in remote
+	 *         {@link system.Computer Computer}.
+	 * @throws InterruptedException
+	 */
+
+	public LinkedList<Task<?>> takeTasks(ComputerProxy requester, int maxTasks)
+			throws InterruptedException {
+		LinkedList<Task<?>> batch;
+		LinkedList<Task<?>> pruned = new LinkedList<Task<?>>();
+		while (true) {
+			batch = jobScheduler.take(maxTasks, pruned, exportPollMillis);
+			for (Task<?> task : pruned) {
+				putPrunedResult(task.getLevelNumber() - 1,
+						task.getSuccessorID(), task.getJobID());
+			}
+			pruned.clear();
+			if (!batch.isEmpty())
+				return batch;
+			if (jobScheduler.isEmpty())
+				requestExports(requester, maxTasks);
+		}
+	}
+
+	/**
+	 * Asks the Computers holding dispatched work to export some of their
+	 * locally generated tasks, stopping at the first one which does
+	 * 
+	 * @param requester
+	 *            Represents the proxy of the idle Computer, which is not asked
+	 * @param maxTasks
+	 *            Represents the maximum number of tasks to be exported
+	 */
+	private void requestExports(ComputerProxy requester, int maxTasks) {
+		for (ComputerProxy cp : registeredComputerList.values()) {
+			if (cp != requester && cp.hasOutstandingTasks()
+					&& cp.exportTasks(maxTasks) > 0)
+				return;
+		}
+	}
+
+	/**
+	 * Records that a task exported by a {@link system.Computer Computer}
+	 * reports to a successor held by that Computer, so that its result is
+	 * forwarded back
+	 * 
+	 * @param successorID
+	 *            Represents the unique ID of the successor held by the
+	 *            Computer
+	 * @param owner
+	 *            Represents the proxy of the Computer holding the successor
+	 */
+	void putRemoteSuccessor(UUID successorID, ComputerProxy owner) {
+		while (true) {
+			RemoteSuccessor remoteSuccessor = remoteSuccessors.get(successorID);
+			if (remoteSuccessor == null) {
+				remoteSuccessor = new RemoteSuccessor(owner);
+				RemoteSuccessor existing = remoteSuccessors.putIfAbsent(
+						successorID, remoteSuccessor);
+				if (existing != null)
+					remoteSuccessor = existing;
+			}
+			synchronized (remoteSuccessor) {
+				if (!remoteSuccessor.removed) {
+					remoteSuccessor.pending++;
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the Computer holding the successor a result belongs to, if the
+	 * successor is not held by the Space. Each call accounts for one result.
+	 * 
+	 * @param successorID
+	 *            Represents the unique ID of the successor
+	 * @return Returns the proxy of the Computer holding the successor, or null
+	 *         if the successor is held by the Space
+	 */
+	ComputerProxy takeRemoteSuccessor(UUID successorID) {
+		RemoteSuccessor remoteSuccessor = remoteSuccessors.get(successorID);
+		if (remoteSuccessor == null)
+			return null;
+		synchronized (remoteSuccessor) {
+			if (--remoteSuccessor.pending == 0) {
+				remoteSuccessor.removed = true;
+				remoteSuccessors.remove(successorID, remoteSuccessor);
+			}
+		}
+		return remoteSuccessor.owner;
+	}
+
+	/**
+	 * Gets the Computer holding the successor of a task, without accounting
+	 * for a result
+	 * 
+	 * @param successorID
+	 *            Represents the unique ID of the successor
+	 * @return Returns the proxy of the Computer holding the successor, or null
+	 *         if the successor is held by the Space
+	 */
+	ComputerProxy getRemoteSuccessor(UUID successorID) {
+		RemoteSuccessor remoteSuccessor = remoteSuccessors.get(successorID);
+		return remoteSuccessor == null ? null : remoteSuccessor.owner;
+	}
+
 	/**
 	 * Defines how the {@link system.ComputerProxy ComputerProxy} puts the
 	 * associated {@link api.Result Result} objects into the {@link api.Space
-	 * Space}.
+	 * Space}. Results are sharded across the {@link system.ResultRouter
+	 * ResultRouters} by successor ID, so every result for a given successor is
+	 * routed by the same thread.
 	 */
 
 	public void putResult(Result<?> result) throws RemoteException {
-		try {
-			resultList.put(result);
-		} catch (InterruptedException e) {
-			e.printStackTrace();
-		}
+		UUID successorID = ((ResultImpl<?>) result).getSuccessorID();
+		int shard = (successorID.hashCode() & Integer.MAX_VALUE)
+				% resultRouters.length;
+		resultRouters[shard].putResult(result);
 	}
 
 	public void putWaitingSuccessor(UUID key, Task<?> task)
 			throws RemoteException {
-		waitingSuccessorsMap.put(key, (SuccessorTask<?>) task);
+		if (jobScheduler.hasJob(task.getJobID()))
+			waitingSuccessorsMap.put(key, (SuccessorTask<?>) task);
 	}
 
-	public Task<?> getWaitingSuccessor(UUID key) throws RemoteException {
+	public SuccessorTask<?> getWaitingSuccessor(UUID key) {
 		return waitingSuccessorsMap.get(key);
 	}
 
-	public void removeSuccessor(UUID key) throws RemoteException {
+	public void removeSuccessor(UUID key) {
 		waitingSuccessorsMap.remove(key);
 	}
 
@@ -210,72 +460,47 @@ public class SpaceImpl extends UnicastRemoteObject implements Space,
 	}
 
 	@Override
-	public void run() {
-		try {
-			ResultImpl<?> partialResult;
-			while (true) {
-				partialResult = (ResultImpl<?>) resultList.take();
-				if (partialResult.getLevelNumber() == -1) {
-					try {
-						putFinalResult(partialResult);
-					} catch (RemoteException e) {
-						e.printStackTrace();
-					}
-				} else {
-					UUID successorID = partialResult.getSuccessorID();
-					SuccessorTask<?> sTask = (SuccessorTask<?>) getWaitingSuccessor(successorID);
-					sTask.putArguments(partialResult);
-					if (sTask.getJointCounter() == 0) {
-						try {
-							removeSuccessor(successorID);
-							spaceExecutor.putIntoExecutor(sTask);
-						} catch (RemoteException e) {
-							e.printStackTrace();
-						}
-					}
-				}
-			}
-		} catch (Exception e) {
-			System.out.println("Space Exception");
+	public void setShared(UUID jobID, Shared<?> proposedShared)
+			throws RemoteException {
+		Shared<?> shared = proposedShared;
+		Shared<?> existingShared;
+		synchronized (sharedMap) {
+			existingShared = sharedMap.get(jobID);
+			if (existingShared != null && !shared.isNewerThan(existingShared))
+				return;
+			sharedMap.put(jobID, shared);
+			jobScheduler.setShared(jobID, shared, true);
+			Long startTime = jobStartTimes.get(jobID);
+			if (startTime != null)
+				jobSharedMillis.put(jobID, (System.nanoTime() - startTime)
+						/ 1000000);
+		}
+		if (existingShared == null) {
+			broadcastShared(jobID, shared);
+		} else {
+			sharedSender.offer(jobID, shared);
 		}
 	}
 
-	@Override
-	public void setShared(Shared<?> proposedShared) throws RemoteException {
-		if (this.shared == null) {
-			shared = proposedShared;
-			Iterator<Computer> iterator = registeredComputerList.keySet()
-					.iterator();
-			while (iterator.hasNext()) {
-				try {
-					// iterator.next().setShared(shared, true);
-					registeredComputerList.get(iterator.next())
-							.setSharedBySpace(shared, true);
-				} catch (RemoteException e) {
-					System.out.println("Machine Down");
-					continue;
-				}
-			}
-		} else {
-			if (proposedShared.isNewerThan(shared)) {
-				shared = proposedShared;
-				Thread t = new Thread(new Runnable() {
-					public void run() {
-						Iterator<Computer> iterator = registeredComputerList
-								.keySet().iterator();
-						while (iterator.hasNext()) {
-							try {
-								// iterator.next().setShared(shared, true);
-								registeredComputerList.get(iterator.next())
-										.setSharedBySpace(shared, true);
-							} catch (RemoteException e) {
-								System.out.println("Machine Down");
-								continue;
-							}
-						}
-					}
-				});
-				t.start();
+	/**
+	 * Sends the Shared object of a job to every registered
+	 * {@link system.Computer Computer}
+	 * 
+	 * @param jobID
+	 *            Represents the unique identifier of the job
+	 * @param shared
+	 *            Represents the Shared object of the job
+	 */
+	private void broadcastShared(UUID jobID, Shared<?> shared) {
+		Iterator<Computer> iterator = registeredComputerList.keySet()
+				.iterator();
+		while (iterator.hasNext()) {
+			try {
+				registeredComputerList.get(iterator.next()).setSharedBySpace(
+						jobID, shared, true);
+			} catch (RemoteException e) {
+				System.out.println("Machine Down");
+				continue;
 			}
 		}
 	}
@@ -283,25 +508,30 @@ public class SpaceImpl extends UnicastRemoteObject implements Space,
 	@Override
 	public Result<?> compute(Task<?> task, Shared<?> shared)
 			throws RemoteException {
-		setShared(shared);
-		try {
-			put(task);
-			return take();
-		} catch (RemoteException e1) {
-			e1.printStackTrace();
-		}
-		return null;
+		return take(submit(task, shared));
 	}
 
-	public void putPrunedResult(UUID successorID) {
+	/**
+	 * Puts an empty result for a task whose subtasks were all pruned. The
+	 * empty result is routed like any other result, so its successor is
+	 * handled by a single {@link system.ResultRouter ResultRouter}.
+	 * 
+	 * @param levelNumber
+	 *            Represents the level of the result the pruned task would have
+	 *            produced
+	 * @param successorID
+	 *            Represents the unique ID of the successor waiting for the
+	 *            pruned task
+	 * @param jobID
+	 *            Represents the unique identifier of the job of the pruned
+	 *            task
+	 */
+	public void putPrunedResult(int levelNumber, UUID successorID, UUID jobID) {
 		try {
-			SuccessorTask<?> sTask = (SuccessorTask<?>) getWaitingSuccessor(successorID);
-			sTask.putArguments(null);
-			if (sTask.getJointCounter() == 0) {
-				removeSuccessor(successorID);
-				// put(sTask);
-				spaceExecutor.putIntoExecutor(sTask);
-			}
+			ResultImpl<Object> result = new ResultImpl<Object>(levelNumber,
+					null, successorID);
+			result.setJobID(jobID);
+			putResult(result);
 		} catch (RemoteException e) {
 			e.printStackTrace();
 		}
@@ -328,4 +558,23 @@ public class SpaceImpl extends UnicastRemoteObject implements Space,
 	@Override
 	public void putResults(Result<?> result, UUID taskID) {
 	}
+
+	@Override
+	public void putBatch(OutboundBatch batch) {
+	}
+
+	/**
+	 * Represents a successor held by a {@link system.Computer Computer}
+	 * together with the number of its exported tasks whose results have not
+	 * been forwarded yet
+	 */
+	private static class RemoteSuccessor {
+		private ComputerProxy owner;
+		private int pending;
+		private boolean removed;
+
+		RemoteSuccessor(ComputerProxy owner) {
+			this.owner = owner;
+		}
+	}
 }
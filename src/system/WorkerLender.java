@@ -0,0 +1,35 @@
+package system;
+
+/**
+ * Defines how a task executing on a {@link system.Computer Computer} borrows
+ * the worker threads of that Computer which are waiting for tasks. The
+ * interface is local, not remote: the work is a {@link java.lang.Runnable
+ * Runnable} run in the Computer's own JVM, so only tasks executing on the
+ * Computer can lend its workers.
+ * 
+ * @author Vijayaraghavan Subbaiah
+ */
+
+public interface WorkerLender {
+
+	/**
+	 * Validates whether a worker thread of the Computer is waiting for a task
+	 * and has not been lent out yet
+	 * 
+	 * @return Returns true if {@link #lendIdleWorker(Runnable)} would
+	 *         currently succeed
+	 */
+	boolean hasIdleWorker();
+
+	/**
+	 * Runs work on a thread standing in for a worker thread of the Computer
+	 * which is waiting for a task, so that a long running task can share its
+	 * own work with the otherwise idle processors
+	 * 
+	 * @param work
+	 *            Represents the work to be run
+	 * @return Returns true if the work was started, and false, without
+	 *         running it, if no worker thread is idle
+	 */
+	boolean lendIdleWorker(Runnable work);
+}
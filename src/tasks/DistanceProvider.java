@@ -0,0 +1,334 @@
+package tasks;
+
+/**
+ * Represents the distances between the cities of a Travelling Salesman Problem
+ * instance. How the distances are stored is a trade-off between memory and
+ * the cost of a lookup, so {@link tasks.TspInstance TspInstance} picks the
+ * representation by the number of cities: a full matrix while it is small,
+ * and beyond that distances computed from the coordinates on demand, with the
+ * distances to the nearest neighbours of every city cached. The lower
+ * triangle in single precision is available for callers which need compact
+ * random access to arbitrary pairs; once it outgrows the processor caches, a
+ * lookup in it costs more than computing the distance.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+public interface DistanceProvider {
+	/**
+	 * Represents the largest number of cities for which a full matrix of
+	 * doubles is kept, 8 MB
+	 */
+	int MATRIX_MAX_CITIES = 1024;
+	/**
+	 * Represents the number of nearest neighbours of every city whose
+	 * distances are cached for larger instances
+	 */
+	int CACHED_NEIGHBOURS = 10;
+
+	/**
+	 * Represents the number of cities
+	 *
+	 * @return Returns the number of cities
+	 */
+	int size();
+
+	/**
+	 * Gets the distance between two cities
+	 *
+	 * @param city1
+	 *            Represents the first city
+	 * @param city2
+	 *            Represents the second city
+	 * @return Returns the distance between the two cities
+	 */
+	double get(int city1, int city2);
+
+	/**
+	 * Represents the ways the distance between two cities is derived from
+	 * their coordinates. Besides the plain Euclidean distance, these are the
+	 * rounded metrics of the TSPLIB library of instances, under which its
+	 * published optimal tour lengths hold.
+	 */
+	enum Metric {
+		/**
+		 * Represents the Euclidean distance, unrounded
+		 */
+		EUCLIDEAN {
+			double distance(double dx, double dy) {
+				return Math.sqrt(dx * dx + dy * dy);
+			}
+		},
+		/**
+		 * Represents the Euclidean distance rounded to the nearest integer
+		 */
+		EUC_2D {
+			double distance(double dx, double dy) {
+				return (int) (Math.sqrt(dx * dx + dy * dy) + 0.5);
+			}
+		},
+		/**
+		 * Represents the Euclidean distance rounded up to an integer
+		 */
+		CEIL_2D {
+			double distance(double dx, double dy) {
+				return Math.ceil(Math.sqrt(dx * dx + dy * dy));
+			}
+		},
+		/**
+		 * Represents the pseudo-Euclidean distance of the att instances, the
+		 * Euclidean distance divided by the square root of 10 and rounded up
+		 * to an integer
+		 */
+		ATT {
+			double distance(double dx, double dy) {
+				double r = Math.sqrt((dx * dx + dy * dy) / 10.0);
+				int t = (int) (r + 0.5);
+				return t < r ? t + 1 : t;
+			}
+		};
+
+		/**
+		 * Computes the distance between two cities
+		 *
+		 * @param dx
+		 *            Represents the difference of the x coordinates of the
+		 *            cities
+		 * @param dy
+		 *            Represents the difference of the y coordinates of the
+		 *            cities
+		 * @return Returns the distance between the cities
+		 */
+		abstract double distance(double dx, double dy);
+	}
+
+	/**
+	 * Represents distances held in a full matrix of doubles, the fastest to
+	 * look up and exact
+	 */
+	static class Matrix implements DistanceProvider {
+		private double[][] rows;
+
+		/**
+		 * @param cities
+		 *            Represents the x and y coordinates of cities
+		 */
+		public Matrix(double[][] cities) {
+			this(cities, Metric.EUCLIDEAN);
+		}
+
+		/**
+		 * @param cities
+		 *            Represents the x and y coordinates of cities
+		 * @param metric
+		 *            Represents how distances follow from the coordinates
+		 */
+		public Matrix(double[][] cities, Metric metric) {
+			Coordinates coordinates = new Coordinates(cities, metric);
+			int length = cities.length;
+			rows = new double[length][length];
+			for (int i = 0; i < length; i++) {
+				for (int j = 0; j < i; j++) {
+					rows[i][j] = coordinates.get(i, j);
+					rows[j][i] = rows[i][j];
+				}
+			}
+		}
+
+		public int size() {
+			return rows.length;
+		}
+
+		public double get(int city1, int city2) {
+			return rows[city1][city2];
+		}
+
+		/**
+		 * Gets the matrix itself, for loops which read whole rows
+		 *
+		 * @return Returns the distance matrix
+		 */
+		public double[][] getRows() {
+			return rows;
+		}
+	}
+
+	/**
+	 * Represents distances held once per pair of cities in a single array of
+	 * floats, a quarter of the memory of a full matrix. The distances are
+	 * rounded to single precision.
+	 */
+	static class Triangular implements DistanceProvider {
+		private float[] lower;
+		private int length;
+
+		/**
+		 * @param cities
+		 *            Represents the x and y coordinates of cities
+		 */
+		public Triangular(double[][] cities) {
+			this(cities, Metric.EUCLIDEAN);
+		}
+
+		/**
+		 * @param cities
+		 *            Represents the x and y coordinates of cities
+		 * @param metric
+		 *            Represents how distances follow from the coordinates
+		 */
+		public Triangular(double[][] cities, Metric metric) {
+			Coordinates coordinates = new Coordinates(cities, metric);
+			length = cities.length;
+			lower = new float[length * (length - 1) / 2];
+			int index = 0;
+			for (int i = 1; i < length; i++) {
+				for (int j = 0; j < i; j++) {
+					lower[index++] = (float) coordinates.get(i, j);
+				}
+			}
+		}
+
+		public int size() {
+			return length;
+		}
+
+		public double get(int city1, int city2) {
+			if (city1 == city2)
+				return 0;
+			if (city1 < city2)
+				return lower[city2 * (city2 - 1) / 2 + city1];
+			return lower[city1 * (city1 - 1) / 2 + city2];
+		}
+	}
+
+	/**
+	 * Represents distances computed from the coordinates of the cities
+	 * whenever they are needed, which takes no memory beyond the coordinates
+	 */
+	static class Coordinates implements DistanceProvider {
+		private double[] x;
+		private double[] y;
+		private Metric metric;
+
+		/**
+		 * @param cities
+		 *            Represents the x and y coordinates of cities
+		 */
+		public Coordinates(double[][] cities) {
+			this(cities, Metric.EUCLIDEAN);
+		}
+
+		/**
+		 * @param cities
+		 *            Represents the x and y coordinates of cities
+		 * @param metric
+		 *            Represents how distances follow from the coordinates
+		 */
+		public Coordinates(double[][] cities, Metric metric) {
+			this.metric = metric;
+			x = new double[cities.length];
+			y = new double[cities.length];
+			for (int i = 0; i < cities.length; i++) {
+				x[i] = cities[i][0];
+				y[i] = cities[i][1];
+			}
+		}
+
+		public int size() {
+			return x.length;
+		}
+
+		public double get(int city1, int city2) {
+			return metric.distance(x[city1] - x[city2], y[city1] - y[city2]);
+		}
+	}
+
+	/**
+	 * Represents the nearest neighbours of every city, nearest first, together
+	 * with their distances, in front of another provider. Local search walks
+	 * these lists as its candidate moves and reads the cached distances by
+	 * position as it goes; any other pair is answered by the other provider
+	 * directly, since searching the lists for it would cost more than the
+	 * distance.
+	 */
+	static class NearestNeighbours implements DistanceProvider {
+		private DistanceProvider distance;
+		private int[][] neighbours;
+		private double[][] neighbourDistance;
+
+		/**
+		 * @param distance
+		 *            Represents the provider of all distances
+		 * @param count
+		 *            Represents the number of nearest neighbours kept for
+		 *            every city
+		 */
+		public NearestNeighbours(DistanceProvider distance, int count) {
+			this.distance = distance;
+			int length = distance.size();
+			count = Math.min(count, length - 1);
+			neighbours = new int[length][count];
+			neighbourDistance = new double[length][count];
+			for (int i = 0; i < length; i++) {
+				int[] nearest = neighbours[i];
+				double[] nearestDistance = neighbourDistance[i];
+				int found = 0;
+				for (int j = 0; j < length; j++) {
+					if (j == i)
+						continue;
+					double d = distance.get(i, j);
+					if (found == count && d >= nearestDistance[count - 1])
+						continue;
+					int k = found < count ? found++ : count - 1;
+					while (k > 0 && nearestDistance[k - 1] > d) {
+						nearestDistance[k] = nearestDistance[k - 1];
+						nearest[k] = nearest[k - 1];
+						k--;
+					}
+					nearestDistance[k] = d;
+					nearest[k] = j;
+				}
+			}
+		}
+
+		public int size() {
+			return distance.size();
+		}
+
+		public double get(int city1, int city2) {
+			return distance.get(city1, city2);
+		}
+
+		/**
+		 * Gets the nearest neighbours of a city
+		 *
+		 * @param city
+		 *            Represents the city
+		 * @return Returns the nearest neighbours of the city, nearest first
+		 */
+		public int[] getNeighbours(int city) {
+			return neighbours[city];
+		}
+
+		/**
+		 * Gets the distances of a city to its nearest neighbours
+		 *
+		 * @param city
+		 *            Represents the city
+		 * @return Returns the distance to every nearest neighbour, in the
+		 *         order of {@link #getNeighbours(int)}
+		 */
+		public double[] getNeighbourDistances(int city) {
+			return neighbourDistance[city];
+		}
+
+		/**
+		 * Gets the number of nearest neighbours kept for every city
+		 *
+		 * @return Returns the length of the neighbour lists
+		 */
+		public int getCount() {
+			return neighbours.length > 0 ? neighbours[0].length : 0;
+		}
+	}
+}
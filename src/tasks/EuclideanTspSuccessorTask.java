@@ -2,29 +2,30 @@ package tasks;
 
 import java.io.Serializable;
 import java.rmi.RemoteException;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import system.Computer;
 import system.ResultImpl;
 import system.Shared;
+import api.IncrementalSuccessorTask;
 import api.Result;
+import api.ResultJoin;
 import api.SuccessorTask;
 import api.Task;
 import api.TaskImpl;
 
 public class EuclideanTspSuccessorTask<T> extends TaskImpl<T> implements
-		SuccessorTask<T>, Serializable {
+		IncrementalSuccessorTask<T>, Serializable {
 	private static final long serialVersionUID = -664116067616358753L;
-	AtomicInteger jointCounter;
-	LinkedList<Result<?>> resultList;
+	ResultJoin join;
 	int levelNumber;
 	Task.TaskType type;
 	UUID successorID;
 	UUID taskID;
-	double minDistance;
+	AtomicReference<TSPResult> minResult;
+	TspSearchStatistics statistics;
 	Computer computer;
 
 	/**
@@ -46,14 +47,14 @@ public class EuclideanTspSuccessorTask<T> extends TaskImpl<T> implements
 	 * @param successorID
 	 *            represents the unique successor ID of this task
 	 */
-	EuclideanTspSuccessorTask(AtomicInteger jointCounter, int levelNumber,
+	EuclideanTspSuccessorTask(int jointCounter, int levelNumber,
 			Task.TaskType type, UUID successorID) {
-		this.jointCounter = jointCounter;
+		join = new ResultJoin(jointCounter, this);
 		this.levelNumber = levelNumber;
 		this.type = type;
-		resultList = new LinkedList<Result<?>>();
 		this.successorID = successorID;
-		minDistance = Double.MAX_VALUE;
+		minResult = new AtomicReference<TSPResult>();
+		statistics = new TspSearchStatistics();
 		taskID = UUID.randomUUID();
 	}
 
@@ -95,36 +96,44 @@ public class EuclideanTspSuccessorTask<T> extends TaskImpl<T> implements
 
 	@Override
 	public Result<?> composeResult() throws RemoteException {
-		double minDistance = Double.MAX_VALUE;
-		int[] minTour = null;
-		TSPResult tspResult = null;
-		Iterator<Result<?>> iterator = resultList.iterator();
-		while (iterator.hasNext()) {
-			Result<?> partialResult = iterator.next();
-			if (partialResult != null) {
-				tspResult = (TSPResult) partialResult.getTaskReturnValue();
-				if (tspResult != null) {
-					if (minDistance > tspResult.getMinDistance()) {
-						minDistance = tspResult.getMinDistance();
-						minTour = tspResult.getMinTour();
-					}
-				}
-			}
-		}
-		if (minDistance == Double.MAX_VALUE)
-			tspResult = null;
-		else {
-			/*
-			 * if (minDistance <= ((TspUpperBound) getShared()).get()
-			 * .doubleValue()) { tspResult = new TSPResult(minTour,
-			 * minDistance); } else tspResult = null;
-			 */
-			tspResult = new TSPResult(minTour, minDistance);
-		}
-		return new ResultImpl<TSPResult>(levelNumber - 1, tspResult,
+		TSPResult min = minResult.get();
+		if (min != null)
+			min = new TSPResult(min.getMinTour(), min.getMinDistance(),
+					statistics);
+		else if (statistics.getNodeCount() > 0
+				|| statistics.getTranspositionLookups() > 0)
+			min = new TSPResult(null, null, statistics);
+		return new ResultImpl<TSPResult>(levelNumber - 1, min,
 				this.successorID);
 	}
 
+	/**
+	 * Keeps the arriving tour if it is shorter than the shortest tour seen so
+	 * far and adds up the work done by the searches
+	 * 
+	 * @param partialResult
+	 *            Represents the {@link api.Result} object, which is null or
+	 *            carries a null tour when the subtree was pruned
+	 */
+
+	@Override
+	public void combine(Result<?> partialResult) {
+		if (partialResult == null
+				|| partialResult.getTaskReturnValue() == null)
+			return;
+		TSPResult tspResult = (TSPResult) partialResult.getTaskReturnValue();
+		statistics.add(tspResult.getStatistics());
+		if (tspResult.getMinTour() == null)
+			return;
+		TSPResult currentMin = minResult.get();
+		while (currentMin == null
+				|| currentMin.getMinDistance() > tspResult.getMinDistance()) {
+			if (minResult.compareAndSet(currentMin, tspResult))
+				return;
+			currentMin = minResult.get();
+		}
+	}
+
 	/**
 	 * Represents the implementation of how the successor task for Euclideantsp
 	 * problem is generated
@@ -179,14 +188,13 @@ public class EuclideanTspSuccessorTask<T> extends TaskImpl<T> implements
 	 * 
 	 * @param args
 	 *            Represents the {@link api.Result} object.
+	 * @return Returns this successor if args was the last result it was
+	 *         waiting for, and null otherwise
 	 */
 
 	@Override
-	public void putArguments(Result<?> args) {
-		synchronized (resultList) {
-			resultList.add(args);
-			jointCounter.decrementAndGet();
-		}
+	public SuccessorTask<T> putArguments(Result<?> args) {
+		return join.arrive(args) ? this : null;
 	}
 
 	/**
@@ -199,7 +207,7 @@ public class EuclideanTspSuccessorTask<T> extends TaskImpl<T> implements
 
 	@Override
 	public int getJointCounter() {
-		return jointCounter.get();
+		return join.getPending();
 	}
 
 	/**
@@ -235,7 +243,7 @@ public class EuclideanTspSuccessorTask<T> extends TaskImpl<T> implements
 	 */
 	@Override
 	public Shared<?> getShared() throws RemoteException {
-		return computer.getShared();
+		return computer.getShared(getJobID());
 	}
 
 	/**
@@ -251,7 +259,7 @@ public class EuclideanTspSuccessorTask<T> extends TaskImpl<T> implements
 
 	@Override
 	protected void setShared(Shared<?> shared) throws RemoteException {
-		computer.setShared(shared, false);
+		computer.setShared(getJobID(), shared, false);
 	}
 
 	/**
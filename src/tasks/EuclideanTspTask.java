@@ -1,15 +1,19 @@
 package tasks;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.rmi.RemoteException;
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
 import system.Computer;
 import system.ResultImpl;
 import system.Shared;
+import system.WorkerLender;
+import api.DataHandle;
 import api.Result;
 import api.SuccessorTask;
 import api.Task;
@@ -26,86 +30,53 @@ import api.TaskImpl;
 
 public class EuclideanTspTask extends TaskImpl<TSPResult> implements
 		Serializable {
-	private static final long serialVersionUID = 229L;
-	@SuppressWarnings("unused")
-	private double[][] cities;
-	int levelNumber;
-	Task.TaskType type;
+	private static final long serialVersionUID = 230L;
 	private static final int MAX_LEVEL = 3;
-	ArrayList<Integer> visitedCities;
-	ArrayList<Integer> currentCities;
-	double visitedDistance = 0;
-	UUID successorID;
-	UUID taskID;
-	TspUpperBound tspUpperBound;
-	Computer computer;
-	double distance[][];
-	double boundDistance[][];
-	double lowerBound;
+	/**
+	 * Represents the largest instance the task can search, as cities are
+	 * numbered with shorts in its paths and in its serialized form
+	 */
+	public static final int MAX_CITIES = Short.MAX_VALUE;
+	transient int levelNumber;
+	transient short[] path;
+	transient int numberOfCities;
+	transient BitSet remainingCities;
+	transient double visitedDistance = Double.NaN;
+	transient UUID successorID;
+	transient UUID taskID;
+	transient Computer computer;
+	transient DataHandle<TspInstance> instanceHandle;
+	transient TspInstance instance;
+	transient double lowerBound;
+	transient TspSearchStatistics splitStatistics;
 
 	/**
 	 * @param levelNumber
 	 *            Represents the level of the decompose phase of divide and
 	 *            conquer paradigm
-	 * @param cities
-	 *            Represents the x and y coordinates of cities. cities[i][0] is
-	 *            the x-coordinate of city[i] and cities[i][1] is the
-	 *            y-coordinate of city[i].
-	 * @param type
-	 *            Represents {@link api.Type }
+	 * @param instanceHandle
+	 *            Represents the handle of the {@link tasks.TspInstance
+	 *            TspInstance} registered with the Space for this job
+	 * @param numberOfCities
+	 *            Represents the number of cities of the instance
+	 * @throws IllegalArgumentException
+	 *             Throws IllegalArgumentException when the instance has more
+	 *             than {@link #MAX_CITIES} cities
 	 */
 
-	public EuclideanTspTask(int levelNumber, double[][] cities, TaskType type) {
-		this.cities = cities;
-		this.type = type;
+	public EuclideanTspTask(int levelNumber,
+			DataHandle<TspInstance> instanceHandle, int numberOfCities) {
+		if (numberOfCities > MAX_CITIES)
+			throw new IllegalArgumentException(numberOfCities
+					+ " cities exceed the " + MAX_CITIES
+					+ " the branch and bound search can number");
+		this.levelNumber = levelNumber;
+		this.instanceHandle = instanceHandle;
+		this.numberOfCities = numberOfCities;
 		successorID = UUID.randomUUID();
 		taskID = UUID.randomUUID();
-		currentCities = new ArrayList<Integer>();
-		for (int i = 1; i < cities.length; i++) {
-			currentCities.add(i);
-		}
-		visitedCities = new ArrayList<Integer>();
-		visitedCities.add(0);
-		int length = cities.length;
-		distance = new double[length][length];
-		boundDistance = new double[length][2];
-		for (int i = 0; i < length; i++) {
-			distance[i][i] = 0;
-			for (int j = 0; j < length; j++) {
-				if (i != j) {
-					distance[i][j] = euclideanDistance(cities[i][0],
-							cities[i][1], cities[j][0], cities[j][1]);
-				}
-			}
-		}
-		double min = Double.MAX_VALUE;
-		double secondMin = Double.MAX_VALUE;
-		for (int i = 0; i < length; i++) {
-			min = Double.MAX_VALUE;
-			secondMin = Double.MAX_VALUE;
-			boolean first = true;
-			for (int j = 0; j < length; j++) {
-				if (i != j) {
-					if (first) {
-						min = distance[i][j];
-						first = false;
-					} else {
-						if (distance[i][j] < min) {
-							min = distance[i][j];
-						} else if (distance[i][j] < secondMin) {
-							secondMin = distance[i][j];
-						}
-					}
-				}
-			}
-			boundDistance[i][0] = min;
-			boundDistance[i][1] = secondMin;
-		}
-
-		for (int i = 0; i < length; i++) {
-			System.out.println(boundDistance[i][0] + "   "
-					+ boundDistance[i][1]);
-		}
+		path = new short[] { 0 };
+		visitedDistance = 0;
 	}
 
 	/**
@@ -113,46 +84,137 @@ public class EuclideanTspTask extends TaskImpl<TSPResult> implements
 	 * @param levelNumber
 	 *            Represents the level of decomposition phase in the divide and
 	 *            conquer strategy
-	 * @param cities
-	 *            Represents the x and y coordinates of cities. cities[i][0] is
-	 *            the x-coordinate of city[i] and cities[i][1] is the
-	 *            y-coordinate of city[i].
-	 * @param startCity
-	 *            Denotes the city which is the start point of the tour
-	 * @param currentCities
-	 *            Denotes the rest of cities other than start city which will be
-	 *            considered for making a tour from the start city
+	 * @param path
+	 *            Denotes the cities visited so far, in the order they are
+	 *            visited, starting with city 0
+	 * @param remainingCities
+	 *            Denotes the cities which are still to be visited
+	 * @param visitedDistance
+	 *            Represents the length of the path
 	 * @param successorID
 	 *            Represents the unique ID of the successor to which this task
 	 *            should return its result
-	 * @param type
-	 *            Represents the {@link api.Task.TaskType}
+	 * @param instanceHandle
+	 *            Represents the handle of the instance of the job
+	 * @param instance
+	 *            Represents the already resolved instance of the job
+	 * @param lowerBound
+	 *            Represents the lower bound of every tour extending the path
 	 */
-	@SuppressWarnings("unchecked")
-	private EuclideanTspTask(int levelNumber, ArrayList<Integer> visitedCities,
-			double visitedDistance, ArrayList<Integer> currentCities,
-			UUID successorID, TaskType type, double[][] distance,
-			double lowerBound, double[][] boundDistance) {
+	private EuclideanTspTask(int levelNumber, short[] path,
+			BitSet remainingCities, double visitedDistance, UUID successorID,
+			DataHandle<TspInstance> instanceHandle, TspInstance instance,
+			double lowerBound) {
 		this.levelNumber = levelNumber;
-		this.visitedCities = (ArrayList<Integer>) visitedCities.clone();
+		this.path = path;
+		this.numberOfCities = instance.size();
+		this.remainingCities = remainingCities;
 		this.visitedDistance = visitedDistance;
-		this.currentCities = (ArrayList<Integer>) currentCities.clone();
 		this.successorID = successorID;
-		this.type = type;
-		this.distance = distance;
+		this.instanceHandle = instanceHandle;
+		this.instance = instance;
 		this.lowerBound = lowerBound;
-		this.boundDistance = boundDistance;
 		taskID = UUID.randomUUID();
 	}
 
-	int[] arrayFromArrayList(ArrayList<Integer> arrList) {
-		int[] arr = new int[arrList.size()];
-		int i = 0;
-		for (Integer element : arrList) {
-			arr[i] = element;
-			i++;
+	/**
+	 * Writes the subproblem as its path of city numbers, its lower bound and
+	 * the IDs it is known by. The remaining cities and the length of the path
+	 * are rebuilt where the task is read.
+	 * 
+	 * @param out
+	 *            Represents the stream the task is written to
+	 * @throws IOException
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(levelNumber);
+		out.writeShort(numberOfCities);
+		out.writeShort(path.length);
+		for (short city : path) {
+			out.writeShort(city);
+		}
+		out.writeDouble(lowerBound);
+		writeUUID(out, successorID);
+		writeUUID(out, taskID);
+		writeUUID(out, instanceHandle.getDataID());
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException,
+			ClassNotFoundException {
+		in.defaultReadObject();
+		levelNumber = in.readInt();
+		numberOfCities = in.readShort();
+		path = new short[in.readShort()];
+		for (int i = 0; i < path.length; i++) {
+			path[i] = in.readShort();
+		}
+		lowerBound = in.readDouble();
+		successorID = readUUID(in);
+		taskID = readUUID(in);
+		instanceHandle = new DataHandle<TspInstance>(readUUID(in));
+		visitedDistance = Double.NaN;
+	}
+
+	private static void writeUUID(ObjectOutputStream out, UUID id)
+			throws IOException {
+		out.writeLong(id.getMostSignificantBits());
+		out.writeLong(id.getLeastSignificantBits());
+	}
+
+	private static UUID readUUID(ObjectInputStream in) throws IOException {
+		return new UUID(in.readLong(), in.readLong());
+	}
+
+	/**
+	 * Gets the instance of the job, resolving the handle against the local
+	 * copy of the Computer the first time
+	 * 
+	 * @param computer
+	 *            Represents the Compute Engine in which the task is executing
+	 * @return Returns the instance of the job
+	 * @throws RemoteException
+	 */
+	private TspInstance getInstance(Computer computer) throws RemoteException {
+		if (instance == null)
+			instance = instanceHandle.resolve(computer);
+		return instance;
+	}
+
+	/**
+	 * Gets the cities still to be visited, rebuilding them from the path if
+	 * the task has been deserialized
+	 * 
+	 * @return Returns the set of remaining cities
+	 */
+	private BitSet getRemainingCities() {
+		if (remainingCities == null) {
+			remainingCities = new BitSet(numberOfCities);
+			remainingCities.set(1, numberOfCities);
+			for (short city : path) {
+				remainingCities.clear(city);
+			}
+		}
+		return remainingCities;
+	}
+
+	/**
+	 * Gets the length of the path, rebuilding it from the distances of the
+	 * instance if the task has been deserialized
+	 * 
+	 * @param distance
+	 *            Represents the distance matrix of the instance
+	 * @return Returns the length of the path
+	 */
+	private double getVisitedDistance(double[][] distance) {
+		if (Double.isNaN(visitedDistance)) {
+			double length = 0;
+			for (int i = 1; i < path.length; i++) {
+				length += distance[path[i - 1]][path[i]];
+			}
+			visitedDistance = length;
 		}
-		return arr;
+		return visitedDistance;
 	}
 
 	/**
@@ -168,78 +230,53 @@ public class EuclideanTspTask extends TaskImpl<TSPResult> implements
 
 	@Override
 	public Result<TSPResult> execute() throws RemoteException {
-		Stack<EuclideanTspTask> stack = new Stack<EuclideanTspTask>();
 		TSPResult result = null;
-		Double minDistance = Double.MAX_VALUE;
-		int[] minTour = null;
-		EuclideanTspTask interSolution;
-		EuclideanTspTask bestSolution = null;
-		Computer comp = getComputer();
-		TspUpperBound computerUpperBound = (TspUpperBound) getShared();
-		TspUpperBound optimalUpperBound = new TspUpperBound(
-				computerUpperBound.get());
-		int levelNumber = this.levelNumber;
-		UUID successorID = this.successorID;
-		for (stack.push(this); !stack.isEmpty();) {
-			interSolution = stack.pop();
-			TspUpperBound currentLowerBound = new TspUpperBound(
-					interSolution.getLowerBound());
-			if (currentLowerBound.isNewerThan(optimalUpperBound)) {
-				if (interSolution.isComplete()) {
-					optimalUpperBound = new TspUpperBound(
-							currentLowerBound.get());
-					bestSolution = interSolution;
-					minDistance = currentLowerBound.get();
-					setShared(optimalUpperBound);
-				} else {
-					LinkedList<Task<?>> childTasks = interSolution
-							.generateTasks(null, comp);
-					Iterator<Task<?>> iterator = childTasks.iterator();
-					while (iterator.hasNext()) {
-						EuclideanTspTask childTask = ((EuclideanTspTask) iterator
-								.next());
-						stack.push(childTask);
+		TspInstance instance = getInstance(getComputer());
+		double upperBound = ((TspUpperBound) getShared()).get();
+		if (lowerBound < upperBound) {
+			TspParallelSearch search = new TspParallelSearch(instance) {
+				@Override
+				void improved(double tourLength) {
+					try {
+						setShared(new TspUpperBound(tourLength));
+					} catch (RemoteException e) {
+						e.printStackTrace();
 					}
 				}
-			}
-		}
-		// if (optimalUpperBound.isNewerThan(computerUpperBound)) {
-		if (minDistance != Double.MAX_VALUE) {
-
-			// setShared(optimalUpperBound);
-			int index = 0;
-			minTour = new int[bestSolution.visitedCities.size()];
-			Iterator<Integer> visitedIterator = bestSolution.visitedCities
-					.iterator();
-			while (visitedIterator.hasNext()) {
-				minTour[index] = visitedIterator.next();
-				index++;
-			}
-			result = new TSPResult(minTour, minDistance);
-		} else
-			result = null;
-		return new ResultImpl<TSPResult>(levelNumber - 1, result, successorID);
-	}
 
-	/**
-	 * Computes the <a
-	 * href="http://en.wikipedia.org/wiki/Euclidean_distance">Euclidean
-	 * Distance</a> between two cities
-	 * 
-	 * @param x1
-	 *            Represents X-coordinate of the first city
-	 * @param y1
-	 *            Represents Y-coordinate of first city
-	 * @param x2
-	 *            Represents X-coordinate of the second city
-	 * @param y2
-	 *            Represents Y-coordinate of the second city
-	 * 
-	 * @return Returns Euclidean Distance between two cities
-	 */
+				@Override
+				double sharedUpperBound() {
+					try {
+						TspUpperBound shared = (TspUpperBound) getShared();
+						if (shared != null)
+							return shared.get();
+					} catch (RemoteException e) {
+						e.printStackTrace();
+					}
+					return Double.MAX_VALUE;
+				}
+
+				@Override
+				boolean hasIdleWorker() {
+					return getComputer() instanceof WorkerLender
+							&& ((WorkerLender) getComputer()).hasIdleWorker();
+				}
 
-	private double euclideanDistance(double x1, double y1, double x2, double y2) {
-		return Math.sqrt(((x1 - x2) * (x1 - x2)) + ((y1 - y2) * (y1 - y2)));
+				@Override
+				boolean lendIdleWorker(Runnable work) {
+					return getComputer() instanceof WorkerLender
+							&& ((WorkerLender) getComputer())
+									.lendIdleWorker(work);
+				}
+			};
+			if (search.search(path,
+					getVisitedDistance(instance.getDistance()), upperBound))
+				result = new TSPResult(search.getBestTour(),
+						search.getBestLength(), search.getStatistics());
+			else
+				result = new TSPResult(null, null, search.getStatistics());
+		}
+		return new ResultImpl<TSPResult>(levelNumber - 1, result, successorID);
 	}
 
 	/**
@@ -267,16 +304,20 @@ public class EuclideanTspTask extends TaskImpl<TSPResult> implements
 
 	/**
 	 * Represents the implementation of how the successor task for EuclideanTSP
-	 * problem is generated
+	 * problem is generated. The successor starts out with the transposition
+	 * table statistics of the split which created it.
 	 * 
 	 * @return Returns the generated successor task
 	 */
 	@Override
 	public SuccessorTask<?> generateSuccessorTask(int jointCounter)
 			throws RemoteException {
-		return new EuclideanTspSuccessorTask<int[]>(new AtomicInteger(
-				jointCounter), this.getLevelNumber(),
+		EuclideanTspSuccessorTask<int[]> successorTask = new EuclideanTspSuccessorTask<int[]>(
+				jointCounter, this.getLevelNumber(),
 				Task.TaskType.SUCCESSORTASK, this.successorID);
+		if (splitStatistics != null)
+			successorTask.statistics.add(splitStatistics);
+		return successorTask;
 	}
 
 	/**
@@ -286,7 +327,7 @@ public class EuclideanTspTask extends TaskImpl<TSPResult> implements
 	 */
 	@Override
 	public api.Task.TaskType getTaskType() {
-		return type;
+		return Task.TaskType.CHILDTASK;
 	}
 
 	/**
@@ -295,52 +336,109 @@ public class EuclideanTspTask extends TaskImpl<TSPResult> implements
 	 * 
 	 * @return Returns the generated list of tasks
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public LinkedList<Task<?>> generateTasks(UUID successorID, Computer computer)
 			throws RemoteException {
 		LinkedList<Task<?>> taskList = new LinkedList<Task<?>>();
-		int newStartCity;
-		double newVisitedDistance = 0;
-		int previousVisitedCity = visitedCities.get(visitedCities.size() - 1);
-		ArrayList<Integer> newCurrentCities;
-		ArrayList<Integer> newVisitedCities;
-		for (int i = 0; i < currentCities.size(); i++) {
-			newCurrentCities = (ArrayList<Integer>) currentCities.clone();
-			newStartCity = newCurrentCities.remove(i);
-			newVisitedCities = (ArrayList<Integer>) visitedCities.clone();
-			newVisitedCities.add(newStartCity);
-			newVisitedDistance = visitedDistance
+		TspInstance instance = getInstance(computer);
+		double[][] distance = instance.getDistance();
+		double[][] boundDistance = instance.getBoundDistance();
+		double[] halfBound = instance.getHalfBound();
+		BitSet remainingCities = getRemainingCities();
+		double visitedDistance = getVisitedDistance(distance);
+		int previousVisitedCity = path[path.length - 1];
+		Double upperBound = ((TspUpperBound) computer.getShared(getJobID()))
+				.get();
+		int[] startRank = instance.getStartRank();
+		int firstRank = path.length > 1 ? startRank[path[1]] : -1;
+		double remainingBound = 0;
+		int aboveFirst = 0;
+		for (int city = remainingCities.nextSetBit(0); city >= 0; city = remainingCities
+				.nextSetBit(city + 1)) {
+			remainingBound += halfBound[city];
+			if (startRank[city] > firstRank)
+				aboveFirst++;
+		}
+		int remaining = remainingCities.cardinality();
+		TspTranspositionTable transpositionTable = path.length >= 3 ? instance
+				.getTranspositionTable() : null;
+		long pathMask = 0;
+		for (short city : path) {
+			pathMask |= 1L << city;
+		}
+		long lookups = 0;
+		long hits = 0;
+		long prunes = 0;
+		TspOneTree oneTree = null;
+		int[] oneTreeCities = null;
+		if (instance.usesOneTree(remaining - 1)) {
+			oneTree = new TspOneTree(instance);
+			oneTreeCities = new int[remaining];
+		}
+		// Children are listed nearest city first, so that the most promising
+		// subtree is searched first
+		for (int newStartCity : instance.getNeighbours()[previousVisitedCity]) {
+			if (!remainingCities.get(newStartCity))
+				continue;
+			// Tours are only built in the direction in which the first city is
+			// closer to city 0 than the last one
+			int rank = startRank[newStartCity];
+			if (remaining == 1 ? rank < firstRank
+					: (firstRank < 0 ? rank == numberOfCities - 2
+							: aboveFirst - (rank > firstRank ? 1 : 0) == 0))
+				continue;
+			int first = firstRank < 0 ? newStartCity : path[1];
+			double newVisitedDistance = visitedDistance
 					+ distance[previousVisitedCity][newStartCity];
-			int lastCity = newStartCity;
-			double lowerBound = 0;
-			if (newCurrentCities.size() == 0)
-				lowerBound = newVisitedDistance + distance[lastCity][0];
-			else {
+			double lowerBound;
+			if (remaining == 1)
 				lowerBound = newVisitedDistance
-						+ ((boundDistance[lastCity][1] + boundDistance[newCurrentCities
-								.get(0)][0]) / 2);
+						+ distance[newStartCity][0];
+			else
+				lowerBound = newVisitedDistance
+						+ boundDistance[newStartCity][0] / 2
+						+ (remainingBound - halfBound[newStartCity])
+						+ distance[0][first] / 2;
+			// Children which are dominated by a shorter partial tour over the
+			// same cities seen on this Computer are dropped
+			if (transpositionTable != null && lowerBound < upperBound) {
+				lookups++;
+				int outcome = transpositionTable.probe(pathMask
+						| 1L << newStartCity, newStartCity, firstRank,
+						newVisitedDistance);
+				if (outcome != TspTranspositionTable.MISS)
+					hits++;
+				if (outcome == TspTranspositionTable.DOMINATED) {
+					prunes++;
+					continue;
+				}
 			}
-			Iterator<Integer> iter = newCurrentCities.iterator();
-			if (iter.hasNext()) {
-				int next = 0;
-				int start = iter.next();
-				while (iter.hasNext()) {
-					next = iter.next();
-					lowerBound += (boundDistance[start][1] + boundDistance[next][0]) / 2;
-					start = next;
+			if (oneTree != null && remaining > 1 && lowerBound < upperBound) {
+				int count = 0;
+				for (int city = remainingCities.nextSetBit(0); city >= 0; city = remainingCities
+						.nextSetBit(city + 1)) {
+					if (city != newStartCity)
+						oneTreeCities[count++] = city;
 				}
-				lowerBound += (boundDistance[start][1] + boundDistance[0][1]) / 2;
+				lowerBound = Math.max(lowerBound, newVisitedDistance
+						+ oneTree.bound(newStartCity, first, oneTreeCities,
+								count, upperBound - newVisitedDistance));
 			}
-			Double upperBound = ((TspUpperBound) computer.getShared()).get();
 			if (lowerBound < upperBound) {
+				BitSet newRemainingCities = (BitSet) remainingCities.clone();
+				newRemainingCities.clear(newStartCity);
+				short[] newPath = Arrays.copyOf(path, path.length + 1);
+				newPath[path.length] = (short) newStartCity;
 				EuclideanTspTask partialEuclideanTspTask = new EuclideanTspTask(
-						this.getLevelNumber() + 1, newVisitedCities,
-						newVisitedDistance, newCurrentCities, successorID,
-						TaskType.CHILDTASK, distance, lowerBound, boundDistance);
+						this.getLevelNumber() + 1, newPath, newRemainingCities,
+						newVisitedDistance, successorID, instanceHandle,
+						instance, lowerBound);
+				partialEuclideanTspTask.setJobID(getJobID());
 				taskList.add(partialEuclideanTspTask);
 			}
 		}
+		if (lookups > 0)
+			splitStatistics = new TspSearchStatistics(0, lookups, hits, prunes);
 		return taskList;
 	}
 
@@ -364,6 +462,16 @@ public class EuclideanTspTask extends TaskImpl<TSPResult> implements
 		return MAX_LEVEL;
 	}
 
+	/**
+	 * Validates whether the partial tour can be extended in more than one way
+	 * 
+	 * @return Returns true if more than one city remains to be visited
+	 */
+	@Override
+	public boolean isSplittable() {
+		return numberOfCities - path.length > 1;
+	}
+
 	/**
 	 * Validates whether the task can be further decomposed or not
 	 * 
@@ -389,7 +497,7 @@ public class EuclideanTspTask extends TaskImpl<TSPResult> implements
 
 	@Override
 	public Shared<?> getShared() throws RemoteException {
-		return computer.getShared();
+		return computer.getShared(getJobID());
 	}
 
 	/**
@@ -405,7 +513,7 @@ public class EuclideanTspTask extends TaskImpl<TSPResult> implements
 
 	@Override
 	protected void setShared(Shared<?> shared) throws RemoteException {
-		computer.setShared(shared, false);
+		computer.setShared(getJobID(), shared, false);
 	}
 
 	/**
@@ -430,7 +538,7 @@ public class EuclideanTspTask extends TaskImpl<TSPResult> implements
 	 */
 
 	public boolean isComplete() {
-		if (visitedCities.size() == boundDistance.length)
+		if (path.length == numberOfCities)
 			return true;
 		else
 			return false;
@@ -448,6 +556,19 @@ public class EuclideanTspTask extends TaskImpl<TSPResult> implements
 		return lowerBound;
 	}
 
+	/**
+	 * Validates whether the subtree of the task can be discarded, because its
+	 * lower bound is not below the given upper bound
+	 * 
+	 * @param shared
+	 *            Represents the current Shared upper bound of the job
+	 * @return Returns true if the task can be pruned
+	 */
+	@Override
+	public boolean isPrunable(Shared<?> shared) {
+		return lowerBound >= ((TspUpperBound) shared).get();
+	}
+
 	/**
 	 * Gets the instance of the Compute Engine in which the current task resides
 	 * 
@@ -483,6 +604,20 @@ public class EuclideanTspTask extends TaskImpl<TSPResult> implements
 				computer);
 		SuccessorTask<?> successorTask = generateSuccessorTask(childTasksList
 				.size());
+		// Improvement tasks are not counted by the successor and come last,
+		// so that the exact search gets the worker threads first and the
+		// improvement tasks are the first to be exported to idle Computers
+		if (path.length == 1 && !childTasksList.isEmpty()) {
+			TspInstance instance = getInstance(computer);
+			UUID improvementSuccessorID = UUID.randomUUID();
+			for (int i = 0; i < instance.getPortfolioTasks(); i++) {
+				TspImprovementTask improvementTask = new TspImprovementTask(
+						this.getLevelNumber() + 1, instanceHandle, i,
+						instance.getPortfolioMillis(), improvementSuccessorID);
+				improvementTask.setJobID(getJobID());
+				childTasksList.add(improvementTask);
+			}
+		}
 		return new TaskContainer(successorTask, childTasksList);
 	}
 
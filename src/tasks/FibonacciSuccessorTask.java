@@ -2,7 +2,6 @@ package tasks;
 
 import java.io.Serializable;
 import java.rmi.RemoteException;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -11,16 +10,18 @@ import system.Computer;
 import system.ResultImpl;
 import system.Shared;
 
+import api.IncrementalSuccessorTask;
 import api.Result;
+import api.ResultJoin;
 import api.SuccessorTask;
 import api.Task;
 import api.TaskImpl;
 
 public class FibonacciSuccessorTask<T> extends TaskImpl<T> implements
-		SuccessorTask<T>, Serializable {
+		IncrementalSuccessorTask<T>, Serializable {
 	private static final long serialVersionUID = 3295373718507598079L;
-	AtomicInteger jointCounter;
-	LinkedList<Result<?>> resultList;
+	ResultJoin join;
+	AtomicInteger sum;
 	int levelNumber;
 	Task.TaskType type;
 	UUID successorID;
@@ -38,12 +39,12 @@ public class FibonacciSuccessorTask<T> extends TaskImpl<T> implements
 	 * @param successorID
 	 *            Represents the unique id of the successor task
 	 */
-	FibonacciSuccessorTask(AtomicInteger jointCounter, int levelNumber,
+	FibonacciSuccessorTask(int jointCounter, int levelNumber,
 			Task.TaskType type, UUID successorID) {
-		this.jointCounter = jointCounter;
+		join = new ResultJoin(jointCounter, this);
+		sum = new AtomicInteger();
 		this.levelNumber = levelNumber;
 		this.type = type;
-		resultList = new LinkedList<Result<?>>();
 		this.successorID = successorID;
 		taskID = UUID.randomUUID();
 	}
@@ -81,15 +82,20 @@ public class FibonacciSuccessorTask<T> extends TaskImpl<T> implements
 
 	@Override
 	public Result<?> composeResult() {
-		int sum = 0;
-		Iterator<Result<?>> iterator = resultList.iterator();
-		while (iterator.hasNext()) {
-			Result<?> partialResult = iterator.next();
-			Integer partialSolution = (Integer) partialResult
-					.getTaskReturnValue();
-			sum += partialSolution;
-		}
-		return new ResultImpl<Integer>(levelNumber - 1, sum, this.successorID);
+		return new ResultImpl<Integer>(levelNumber - 1, sum.get(),
+				this.successorID);
+	}
+
+	/**
+	 * Adds the arriving fibonacci number to the running sum
+	 * 
+	 * @param partialResult
+	 *            Represents the {@link api.Result} object.
+	 */
+
+	@Override
+	public void combine(Result<?> partialResult) {
+		sum.addAndGet((Integer) partialResult.getTaskReturnValue());
 	}
 
 	/**
@@ -120,14 +126,13 @@ public class FibonacciSuccessorTask<T> extends TaskImpl<T> implements
 	 * 
 	 * @param args
 	 *            Represents the {@link api.Result} object.
+	 * @return Returns this successor if args was the last result it was
+	 *         waiting for, and null otherwise
 	 */
 
 	@Override
-	public void putArguments(Result<?> args) {
-		synchronized (resultList) {
-			resultList.add(args);
-			jointCounter.decrementAndGet();
-		}
+	public SuccessorTask<T> putArguments(Result<?> args) {
+		return join.arrive(args) ? this : null;
 	}
 
 	/**
@@ -140,7 +145,7 @@ public class FibonacciSuccessorTask<T> extends TaskImpl<T> implements
 
 	@Override
 	public int getJointCounter() {
-		return jointCounter.get();
+		return join.getPending();
 	}
 
 	/**
@@ -4,7 +4,6 @@ import java.util.UUID;
 import java.io.Serializable;
 import java.rmi.RemoteException;
 import java.util.LinkedList;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import system.Computer;
 import system.ResultImpl;
@@ -48,13 +47,22 @@ public class FibonacciTask extends TaskImpl<Integer> implements Serializable {
 	}
 
 	/**
-	 * Executes the computation for the calculation of nth fibonacci number
+	 * Executes the computation for the calculation of nth fibonacci number.
+	 * The number is computed iteratively, so that a task which is not
+	 * decomposed any further does not have to be a base case.
 	 * 
 	 * @return Represents the nth fibonacci number
 	 */
 	@Override
 	public Result<Integer> execute() {
-		return new ResultImpl<Integer>(this.getLevelNumber() - 1, n,
+		int previous = 1;
+		int current = 0;
+		for (int i = 0; i < n; i++) {
+			int next = previous + current;
+			previous = current;
+			current = next;
+		}
+		return new ResultImpl<Integer>(this.getLevelNumber() - 1, current,
 				this.getSuccessorID());
 	}
 
@@ -86,8 +94,7 @@ public class FibonacciTask extends TaskImpl<Integer> implements Serializable {
 	@Override
 	public SuccessorTask<?> generateSuccessorTask(int jointCounter)
 			throws RemoteException {
-		return new FibonacciSuccessorTask<Integer>(new AtomicInteger(
-				jointCounter), this.getLevelNumber(),
+		return new FibonacciSuccessorTask<Integer>(jointCounter, this.getLevelNumber(),
 				Task.TaskType.SUCCESSORTASK, this.successorID);
 	}
 
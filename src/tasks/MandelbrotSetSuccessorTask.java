@@ -3,27 +3,28 @@ package tasks;
 import java.io.Serializable;
 import java.rmi.RemoteException;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
 
 import system.Computer;
 import system.ResultImpl;
 import system.Shared;
+import api.IncrementalSuccessorTask;
 import api.Result;
+import api.ResultJoin;
 import api.SuccessorTask;
 import api.Task;
 import api.TaskImpl;
 
 public class MandelbrotSetSuccessorTask<T> extends TaskImpl<T> implements
-		SuccessorTask<T>, Serializable {
+		IncrementalSuccessorTask<T>, Serializable {
 
 	private static final long serialVersionUID = 7520590055646721525L;
 	int[][] counts;
-	AtomicInteger jointCounter;
-	LinkedList<Result<?>> resultList;
+	ConcurrentHashMap<Integer, int[][]> rows;
+	ResultJoin join;
 	int levelNumber;
 	Task.TaskType type;
 	UUID successorID;
@@ -41,12 +42,12 @@ public class MandelbrotSetSuccessorTask<T> extends TaskImpl<T> implements
 	 * @param successorID
 	 *            Represents the unique id of the successor task
 	 */
-	MandelbrotSetSuccessorTask(AtomicInteger jointCounter, int levelNumber,
+	MandelbrotSetSuccessorTask(int jointCounter, int levelNumber,
 			Task.TaskType type, UUID successorID) {
-		this.jointCounter = jointCounter;
+		join = new ResultJoin(jointCounter, this);
+		rows = new ConcurrentHashMap<Integer, int[][]>();
 		this.levelNumber = levelNumber;
 		this.type = type;
-		resultList = new LinkedList<Result<?>>();
 		this.successorID = successorID;
 		taskID = UUID.randomUUID();
 	}
@@ -84,35 +85,52 @@ public class MandelbrotSetSuccessorTask<T> extends TaskImpl<T> implements
 
 	@Override
 	public Result<?> composeResult() {
-		HashMap<Integer, int[][]> result = new HashMap<Integer, int[][]>();
-		Iterator<Result<?>> iterator = resultList.iterator();
-		while (iterator.hasNext()) {
-			Result<?> partialResult = iterator.next();
-			@SuppressWarnings("unchecked")
-			Map<Integer, int[][]> partialSolution = (Map<Integer, int[][]>) partialResult
-					.getTaskReturnValue();
-			result.putAll(partialSolution);
-		}
+		Map<Integer, int[][]> result = rows;
 		if (levelNumber == 0) {
-			int[][] resultCount = new int[1024][1024];
-			int rowID;
-			int[][] values;
-			for (Map.Entry<Integer, int[][]> entry : result.entrySet()) {
-				rowID = entry.getKey();
-				values = entry.getValue();
-				for (int i = 0; i < values.length; i++) {
-					for (int j = 0; j < values[0].length; j++) {
-						resultCount[rowID + i][j] = values[i][j];
-					}
-				}
-			}
 			result = new HashMap<Integer, int[][]>();
-			result.put(0, resultCount);
+			result.put(0, getCounts());
 		}
 		return new ResultImpl<Map<Integer, int[][]>>(levelNumber - 1, result,
 				this.successorID);
 	}
 
+	/**
+	 * Collects the arriving rows. The root successor copies them straight into
+	 * the complete image, so the partial arrays can be released as soon as
+	 * they arrive.
+	 * 
+	 * @param partialResult
+	 *            Represents the {@link api.Result} object.
+	 */
+
+	@Override
+	public void combine(Result<?> partialResult) {
+		@SuppressWarnings("unchecked")
+		Map<Integer, int[][]> partialSolution = (Map<Integer, int[][]>) partialResult
+				.getTaskReturnValue();
+		if (levelNumber != 0) {
+			rows.putAll(partialSolution);
+			return;
+		}
+		int[][] resultCount = getCounts();
+		int rowID;
+		int[][] values;
+		for (Map.Entry<Integer, int[][]> entry : partialSolution.entrySet()) {
+			rowID = entry.getKey();
+			values = entry.getValue();
+			for (int i = 0; i < values.length; i++) {
+				System.arraycopy(values[i], 0, resultCount[rowID + i], 0,
+						values[i].length);
+			}
+		}
+	}
+
+	private synchronized int[][] getCounts() {
+		if (counts == null)
+			counts = new int[1024][1024];
+		return counts;
+	}
+
 	/**
 	 * Represents the implementation of how the successor task for MandelbrotSet
 	 * problem is generated
@@ -167,14 +185,13 @@ public class MandelbrotSetSuccessorTask<T> extends TaskImpl<T> implements
 	 * 
 	 * @param args
 	 *            Represents the {@link api.Result} object.
+	 * @return Returns this successor if args was the last result it was
+	 *         waiting for, and null otherwise
 	 */
 
 	@Override
-	public void putArguments(Result<?> args) {
-		synchronized (resultList) {
-			resultList.add(args);
-			jointCounter.decrementAndGet();
-		}
+	public SuccessorTask<T> putArguments(Result<?> args) {
+		return join.arrive(args) ? this : null;
 	}
 
 	/**
@@ -187,7 +204,7 @@ public class MandelbrotSetSuccessorTask<T> extends TaskImpl<T> implements
 
 	@Override
 	public int getJointCounter() {
-		return jointCounter.get();
+		return join.getPending();
 	}
 
 	/**
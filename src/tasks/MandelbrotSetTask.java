@@ -11,7 +11,6 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import system.Computer;
 import system.ResultImpl;
@@ -44,8 +43,10 @@ public class MandelbrotSetTask extends TaskImpl<Map<Integer, int[][]>>
 
 	/**
 	 * @param lowerX
-	 *            X-coordinate of the lower left corner of a square in the
-	 *            complex plane
+	 *            X-coordinate of the lower left corner of the whole image in
+	 *            the complex plane. The rows of this task start at row rowID
+	 *            of the image, so that every pixel gets the same coordinate no
+	 *            matter how the image was subdivided.
 	 * @param lowerY
 	 *            Y-coordinate of the lower left corner of a square in the
 	 *            complex plane
@@ -98,7 +99,8 @@ public class MandelbrotSetTask extends TaskImpl<Map<Integer, int[][]>>
 		int[][] counts = new int[numRowSquares][numColumnSquares];
 		int i = 0, j = 0;
 		HashMap<Integer, int[][]> resultMap = new HashMap<Integer, int[][]>();
-		for (double realIndex = lowerX; i < numRowSquares; realIndex += (edgeLength), i++) {
+		for (; i < numRowSquares; i++) {
+			double realIndex = lowerX + (rowID + i) * edgeLength;
 			j = numColumnSquares - 1;
 			for (double imaginaryIndex = lowerY; j >= 0; imaginaryIndex += (edgeLength), j--) {
 				double realConstant = realIndex;
@@ -155,10 +157,10 @@ public class MandelbrotSetTask extends TaskImpl<Map<Integer, int[][]>>
 		int i = 0;
 		int newNumRowSquares = numRowSquares / 2;
 		int newRowID;
-		for (double realIndex = lowerX; i < 2; realIndex += (edgeLength * (newNumRowSquares)), i++) {
+		for (; i < 2; i++) {
 			newRowID = rowID + i * newNumRowSquares;
 			MandelbrotSetTask partialMandelbrotSetTask = new MandelbrotSetTask(
-					realIndex, lowerY, edgeLength, newNumRowSquares,
+					lowerX, lowerY, edgeLength, newNumRowSquares,
 					numColumnSquares, iterationLimit, levelNumber + 1,
 					newRowID, Task.TaskType.CHILDTASK, successorID);
 			listTasks.add(partialMandelbrotSetTask);
@@ -179,8 +181,7 @@ public class MandelbrotSetTask extends TaskImpl<Map<Integer, int[][]>>
 	@Override
 	public SuccessorTask<?> generateSuccessorTask(int jointCounter)
 			throws RemoteException {
-		return new MandelbrotSetSuccessorTask<int[][]>(new AtomicInteger(
-				jointCounter), this.getLevelNumber(),
+		return new MandelbrotSetSuccessorTask<int[][]>(jointCounter, this.getLevelNumber(),
 				Task.TaskType.SUCCESSORTASK, this.successorID);
 	}
 
@@ -198,6 +199,16 @@ public class MandelbrotSetTask extends TaskImpl<Map<Integer, int[][]>>
 		return MAX_LEVEL;
 	}
 
+	/**
+	 * Validates whether the block of rows can be halved
+	 * 
+	 * @return Returns true if the block has an even number of rows above one
+	 */
+	@Override
+	public boolean isSplittable() {
+		return numRowSquares > 1 && numRowSquares % 2 == 0;
+	}
+
 	@Override
 	public boolean isDecomposable() {
 		if (levelNumber < this.getMaxLevel())
@@ -13,6 +13,7 @@ public class TSPResult implements Serializable {
 	private static final long serialVersionUID = 2907842016060277603L;
 	private int[] minTour;
 	private Double minDistance;
+	private TspSearchStatistics statistics;
 
 	/**
 	 * 
@@ -22,9 +23,25 @@ public class TSPResult implements Serializable {
 	 *            Represents the total distance for the entire tour
 	 */
 	public TSPResult(int[] minTour, Double minDistance) {
+		this(minTour, minDistance, new TspSearchStatistics());
+	}
+
+	/**
+	 * 
+	 * @param minTour
+	 *            Represents the sequence of cities that composes a min tour,
+	 *            or null if the search found no tour below the upper bound
+	 * @param minDistance
+	 *            Represents the total distance for the entire tour
+	 * @param statistics
+	 *            Represents the work done by the search
+	 */
+	public TSPResult(int[] minTour, Double minDistance,
+			TspSearchStatistics statistics) {
 		super();
 		this.minTour = minTour;
 		this.minDistance = minDistance;
+		this.statistics = statistics;
 	}
 
 	/**
@@ -82,4 +99,13 @@ public class TSPResult implements Serializable {
 	public Double getMinDistance() {
 		return minDistance;
 	}
+
+	/**
+	 * Gets the work done by the searches whose results this result summarises
+	 * 
+	 * @return Returns the statistics of the searches
+	 */
+	public TspSearchStatistics getStatistics() {
+		return statistics;
+	}
 }
@@ -0,0 +1,439 @@
+package tasks;
+
+/**
+ * Represents the sequential branch and bound search run by a
+ * {@link tasks.EuclideanTspTask EuclideanTspTask} which is not decomposed any
+ * further. The search is a depth first walk over primitive arrays: the partial
+ * tour, the visited flags, how far down the nearest first list of neighbours
+ * of its last city the search has got at every depth and the length of the
+ * partial tour at every depth. Trying the nearest cities first finds a short
+ * tour, and with it a tight upper bound, early. Descending into a city and
+ * backtracking out of it only update these arrays and the running sum of the
+ * bound contributions of the unvisited cities, so no objects are created per
+ * node. The lower bound of a partial tour is its length plus half of the two
+ * shortest edges of every unvisited city, half of the shortest edge of its
+ * last city, which has only one edge left to place, and half of the edge
+ * leaving city 0, which the edge closing the tour cannot be shorter than
+ * because each tour is searched in one direction only. If the instance is
+ * configured for it, partial tours which are not close to completion are also
+ * bounded by their {@link tasks.TspOneTree 1-tree}. The upper bound is
+ * refreshed from the outside every few nodes, and at the same points the
+ * search can give the untried branch nearest its root to an idle thread, as
+ * the branch stands for the most work. A search starting with few
+ * enough cities left is finished by
+ * {@link tasks.TspHeldKarp dynamic programming} instead. On instances small
+ * enough for a bit mask of the visited cities, partial tours of at least
+ * three cities after city 0 are looked up in the
+ * {@link tasks.TspTranspositionTable transposition table} of the Computer and
+ * abandoned if a shorter partial tour over the same cities to the same last
+ * city has been seen.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+class TspBranchAndBound {
+	private static final int REFRESH_INTERVAL = 1024;
+	private static final int MIN_SHARED_CITIES = 8;
+	private double[][] distance;
+	private double[][] boundDistance;
+	private double[] halfBound;
+	private int[] startRank;
+	private int[][] neighbours;
+	private TspInstance instance;
+	private TspOneTree oneTree;
+	private TspTranspositionTable transpositionTable;
+	private long visitedMask;
+	private int[] remaining;
+	private int numberOfCities;
+	private int[] tour;
+	private boolean[] visited;
+	private int[] nextNeighbour;
+	private double[] pathLength;
+	private double remainingBound;
+	private int aboveFirst;
+	private double upperBound;
+	private int[] bestTour;
+	private double bestLength;
+	private long nodeCount;
+	private long transpositionLookups;
+	private long transpositionHits;
+	private long transpositionPrunes;
+
+	/**
+	 *
+	 * @param instance
+	 *            Represents the instance to be searched
+	 */
+	TspBranchAndBound(TspInstance instance) {
+		distance = instance.getDistance();
+		boundDistance = instance.getBoundDistance();
+		halfBound = instance.getHalfBound();
+		startRank = instance.getStartRank();
+		neighbours = instance.getNeighbours();
+		this.instance = instance;
+		if (instance.getBoundMode() == TspInstance.BoundMode.ONE_TREE)
+			oneTree = new TspOneTree(instance);
+		transpositionTable = instance.getTranspositionTable();
+		remaining = new int[instance.size()];
+		numberOfCities = instance.size();
+		tour = new int[numberOfCities];
+		visited = new boolean[numberOfCities];
+		nextNeighbour = new int[numberOfCities];
+		pathLength = new double[numberOfCities];
+	}
+
+	/**
+	 * Searches for the shortest tour extending a partial tour
+	 *
+	 * @param path
+	 *            Represents the partial tour, starting with city 0
+	 * @param visitedDistance
+	 *            Represents the length of the partial tour
+	 * @param upperBound
+	 *            Represents the length a tour has to beat
+	 * @return Returns true if a tour shorter than the upper bound was found
+	 */
+	boolean search(short[] path, double visitedDistance, double upperBound) {
+		this.upperBound = upperBound;
+		bestTour = null;
+		nodeCount = 0;
+		transpositionLookups = 0;
+		transpositionHits = 0;
+		transpositionPrunes = 0;
+		int base = path.length - 1;
+		remainingBound = 0;
+		visitedMask = 0;
+		for (int city = 0; city < numberOfCities; city++) {
+			visited[city] = false;
+		}
+		for (int i = 0; i < path.length; i++) {
+			tour[i] = path[i];
+			visited[path[i]] = true;
+			visitedMask |= 1L << path[i];
+		}
+		if (base >= 3 && isDominated(tour[base], visitedDistance))
+			return false;
+		for (int city = 1; city < numberOfCities; city++) {
+			if (!visited[city])
+				remainingBound += halfBound[city];
+		}
+		aboveFirst = 0;
+		if (base > 0) {
+			for (int city = 1; city < numberOfCities; city++) {
+				if (!visited[city] && startRank[city] > startRank[tour[1]])
+					aboveFirst++;
+			}
+		}
+		pathLength[base] = visitedDistance;
+		if (path.length == numberOfCities) {
+			offerTour(base, visitedDistance + distance[tour[base]][0]);
+			return bestTour != null;
+		}
+		if (instance.usesLeafSolver(numberOfCities - path.length)) {
+			solveRest(base, visitedDistance);
+			return bestTour != null;
+		}
+		nextNeighbour[base] = 0;
+		int depth = base;
+		while (true) {
+			int last = tour[depth];
+			int[] candidates = neighbours[last];
+			int next = nextNeighbour[depth];
+			while (next < candidates.length && visited[candidates[next]]) {
+				next++;
+			}
+			if (next == candidates.length) {
+				if (depth == base)
+					break;
+				visited[last] = false;
+				visitedMask &= ~(1L << last);
+				remainingBound += halfBound[last];
+				if (depth > 1 && startRank[last] > startRank[tour[1]])
+					aboveFirst++;
+				depth--;
+				continue;
+			}
+			nextNeighbour[depth] = next + 1;
+			int city = candidates[next];
+			if (isMirrored(depth, city, aboveFirst))
+				continue;
+			double length = pathLength[depth] + distance[last][city];
+			if (depth + 2 == numberOfCities) {
+				offerTour(depth + 1, length + distance[city][0], city);
+				continue;
+			}
+			int first = depth == 0 ? city : tour[1];
+			double childRemainingBound = remainingBound - halfBound[city];
+			double lowerBound = length + boundDistance[city][0] / 2
+					+ childRemainingBound + distance[0][first] / 2;
+			if (lowerBound >= this.upperBound)
+				continue;
+			if (depth >= 2 && isDominated(city, length))
+				continue;
+			if (oneTree != null && instance.usesOneTree(numberOfCities - depth - 2)
+					&& length + oneTreeBound(city, first, length) >= this.upperBound)
+				continue;
+			nodeCount++;
+			if ((nodeCount & (REFRESH_INTERVAL - 1)) == 0)
+				this.upperBound = Math.min(this.upperBound, sharedUpperBound());
+			depth++;
+			tour[depth] = city;
+			visited[city] = true;
+			visitedMask |= 1L << city;
+			pathLength[depth] = length;
+			nextNeighbour[depth] = 0;
+			remainingBound = childRemainingBound;
+			if (depth == 1)
+				aboveFirst = numberOfCities - 2 - startRank[city];
+			else if (startRank[city] > startRank[tour[1]])
+				aboveFirst--;
+			if ((nodeCount & (REFRESH_INTERVAL - 1)) == 0 && wantsWork())
+				shareShallowest(base, depth);
+		}
+		return bestTour != null;
+	}
+
+	/**
+	 * Gives away the untried city closest to the root of the search, together
+	 * with the partial tour leading to it, and stops searching it here. The
+	 * cities passed over on the way are checked as they would be when the
+	 * search backtracked to them, except against the 1-tree and the
+	 * transposition table, which the search receiving the partial tour
+	 * applies itself.
+	 *
+	 * @param base
+	 *            Represents the depth the search started at
+	 * @param depth
+	 *            Represents the current depth of the search
+	 */
+	private void shareShallowest(int base, int depth) {
+		double bound = remainingBound;
+		int above = aboveFirst;
+		for (int i = base + 1; i <= depth; i++) {
+			bound += halfBound[tour[i]];
+			if (i > 1 && startRank[tour[i]] > startRank[tour[1]])
+				above++;
+		}
+		for (int level = base; level <= depth; level++) {
+			if (numberOfCities - level - 2 < MIN_SHARED_CITIES)
+				return;
+			if (level > base) {
+				int city = tour[level];
+				bound -= halfBound[city];
+				if (level > 1 && startRank[city] > startRank[tour[1]])
+					above--;
+				else if (level == 1)
+					above = numberOfCities - 2 - startRank[city];
+			}
+			int last = tour[level];
+			int[] candidates = neighbours[last];
+			while (nextNeighbour[level] < candidates.length) {
+				int city = candidates[nextNeighbour[level]++];
+				if (isOnPath(city, level) || isMirrored(level, city, above))
+					continue;
+				double length = pathLength[level] + distance[last][city];
+				int first = level == 0 ? city : tour[1];
+				double lowerBound = length + boundDistance[city][0] / 2 + bound
+						- halfBound[city] + distance[0][first] / 2;
+				if (lowerBound >= upperBound)
+					continue;
+				short[] path = new short[level + 2];
+				for (int i = 0; i <= level; i++) {
+					path[i] = (short) tour[i];
+				}
+				path[level + 1] = (short) city;
+				nodeCount++;
+				shareWork(path, length);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Decides whether a city is one of the first cities of the partial tour
+	 */
+	private boolean isOnPath(int city, int lastIndex) {
+		for (int i = 0; i <= lastIndex; i++) {
+			if (tour[i] == city)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Decides whether descending into a city could only produce tours which
+	 * are the reverse of tours produced elsewhere. Every tour is produced in
+	 * the direction in which the city visited first is closer to city 0 than
+	 * the city visited last, so a partial tour is abandoned as soon as no
+	 * remaining city could be last in that direction.
+	 */
+	private boolean isMirrored(int depth, int city, int above) {
+		boolean last = depth + 2 == numberOfCities;
+		if (depth == 0)
+			return !last && startRank[city] == numberOfCities - 2;
+		int firstRank = startRank[tour[1]];
+		if (last)
+			return startRank[city] < firstRank;
+		return above - (startRank[city] > firstRank ? 1 : 0) == 0;
+	}
+
+	/**
+	 * Looks up the visited cities together with the given city as a partial
+	 * tour ending in that city in the transposition table, which records the
+	 * partial tour unless it is dominated
+	 *
+	 * @return Returns true if a shorter partial tour over the same cities to
+	 *         the same last city has been seen
+	 */
+	private boolean isDominated(int city, double length) {
+		if (transpositionTable == null)
+			return false;
+		transpositionLookups++;
+		int outcome = transpositionTable.probe(visitedMask | 1L << city, city,
+				startRank[tour[1]], length);
+		if (outcome == TspTranspositionTable.MISS)
+			return false;
+		transpositionHits++;
+		if (outcome == TspTranspositionTable.HIT)
+			return false;
+		transpositionPrunes++;
+		return true;
+	}
+
+	/**
+	 * Computes the 1-tree bound on the rest of the tour after the search
+	 * descends into a city
+	 */
+	private double oneTreeBound(int city, int first, double length) {
+		int count = collectRemaining(city);
+		return oneTree.bound(city, first, remaining, count, upperBound
+				- length);
+	}
+
+	/**
+	 * Finishes the partial tour ending at the given index of the tour array
+	 * by dynamic programming
+	 *
+	 * @param lastIndex
+	 *            Represents the index of the last city of the partial tour
+	 * @param length
+	 *            Represents the length of the partial tour
+	 */
+	private void solveRest(int lastIndex, double length) {
+		int count = collectRemaining(-1);
+		length += TspHeldKarp.get().solve(distance, tour[lastIndex],
+				remaining, count, tour, lastIndex + 1);
+		offerTour(numberOfCities - 1, length);
+	}
+
+	/**
+	 * Lists the cities which are neither visited nor the given city
+	 *
+	 * @return Returns the number of cities listed in the remaining array
+	 */
+	private int collectRemaining(int excluded) {
+		int count = 0;
+		for (int next = 1; next < numberOfCities; next++) {
+			if (!visited[next] && next != excluded)
+				remaining[count++] = next;
+		}
+		return count;
+	}
+
+	/**
+	 * Records a complete tour ending in the given city if it is shorter than
+	 * the best one so far
+	 */
+	private void offerTour(int lastIndex, double tourLength, int lastCity) {
+		tour[lastIndex] = lastCity;
+		offerTour(lastIndex, tourLength);
+	}
+
+	/**
+	 * Records the complete tour held in the tour array if it is shorter than
+	 * the best one so far
+	 */
+	private void offerTour(int lastIndex, double tourLength) {
+		if (tourLength >= upperBound)
+			return;
+		upperBound = tourLength;
+		bestLength = tourLength;
+		if (bestTour == null)
+			bestTour = new int[numberOfCities];
+		System.arraycopy(tour, 0, bestTour, 0, lastIndex + 1);
+		improved(tourLength);
+	}
+
+	/**
+	 * Called whenever the search finds a tour shorter than every tour before
+	 * it, so that the new upper bound can be shared
+	 *
+	 * @param tourLength
+	 *            Represents the length of the new best tour
+	 */
+	void improved(double tourLength) {
+	}
+
+	/**
+	 * Called every few nodes so that the search can prune with shorter tours
+	 * found by other searches since it started
+	 *
+	 * @return Returns the length of the shortest tour known outside the
+	 *         search
+	 */
+	double sharedUpperBound() {
+		return Double.MAX_VALUE;
+	}
+
+	/**
+	 * Called every few nodes to ask whether another thread is waiting for
+	 * work; if so, the search gives away part of its remaining work through
+	 * {@link #shareWork(short[], double)}
+	 *
+	 * @return Returns true if the search should share work
+	 */
+	boolean wantsWork() {
+		return false;
+	}
+
+	/**
+	 * Called with a partial tour the search will not extend itself, which
+	 * has to be searched elsewhere for the result to be complete
+	 *
+	 * @param path
+	 *            Represents the partial tour, starting with city 0
+	 * @param length
+	 *            Represents the length of the partial tour
+	 */
+	void shareWork(short[] path, double length) {
+	}
+
+	/**
+	 * Gets the best tour found by the last search
+	 *
+	 * @return Returns the cities of the tour in the order they are visited
+	 */
+	int[] getBestTour() {
+		return bestTour.clone();
+	}
+
+	/**
+	 * Gets the work done by the last search
+	 *
+	 * @return Returns the number of partial tours the search descended into
+	 *         and how it used the transposition table
+	 */
+	TspSearchStatistics getStatistics() {
+		return new TspSearchStatistics(nodeCount, transpositionLookups,
+				transpositionHits, transpositionPrunes);
+	}
+
+	/**
+	 * Gets the length of the best tour found by the last search
+	 *
+	 * @return Returns the length of the best tour
+	 */
+	double getBestLength() {
+		return bestLength;
+	}
+}
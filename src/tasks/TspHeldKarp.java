@@ -0,0 +1,111 @@
+package tasks;
+
+/**
+ * Solves the rest of a partial tour exactly by the <a
+ * href="http://en.wikipedia.org/wiki/Held%E2%80%93Karp_algorithm">Held-Karp</a>
+ * dynamic program over subsets of the remaining cities. For every subset of the
+ * remaining cities and every city in it, the table holds the length of the
+ * shortest path which leaves the last city of the partial tour, visits exactly
+ * that subset and ends in that city. The tables are kept per thread and only
+ * grow, so a Computer's worker threads allocate them once.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+class TspHeldKarp {
+	private static final ThreadLocal<TspHeldKarp> TABLES = new ThreadLocal<TspHeldKarp>() {
+		@Override
+		protected TspHeldKarp initialValue() {
+			return new TspHeldKarp();
+		}
+	};
+	private double[] length = new double[0];
+
+	private TspHeldKarp() {
+	}
+
+	/**
+	 * Gets the solver of the calling thread
+	 *
+	 * @return Returns the solver owned by the calling thread
+	 */
+	static TspHeldKarp get() {
+		return TABLES.get();
+	}
+
+	/**
+	 * Computes the shortest way to finish a partial tour
+	 *
+	 * @param distance
+	 *            Represents the distance between every pair of cities
+	 * @param last
+	 *            Represents the last city of the partial tour
+	 * @param remaining
+	 *            Represents the cities not yet on the partial tour
+	 * @param count
+	 *            Represents the number of entries of remaining in use
+	 * @param tour
+	 *            Represents the array receiving the remaining cities in the
+	 *            order they are visited
+	 * @param offset
+	 *            Represents the index of tour at which the first remaining
+	 *            city is written
+	 * @return Returns the length of the rest of the tour, from the last city
+	 *         through every remaining city back to city 0
+	 */
+	double solve(double[][] distance, int last, int[] remaining, int count,
+			int[] tour, int offset) {
+		int subsets = 1 << count;
+		if (length.length < subsets * count)
+			length = new double[subsets * count];
+		double[] lastRow = distance[last];
+		for (int j = 0; j < count; j++) {
+			length[(1 << j) * count + j] = lastRow[remaining[j]];
+		}
+		for (int subset = 1; subset < subsets; subset++) {
+			if ((subset & (subset - 1)) == 0)
+				continue;
+			for (int members = subset; members != 0; members &= members - 1) {
+				int j = Integer.numberOfTrailingZeros(members);
+				int previous = subset & ~(1 << j);
+				double[] row = distance[remaining[j]];
+				double shortest = Double.MAX_VALUE;
+				for (int others = previous; others != 0; others &= others - 1) {
+					int i = Integer.numberOfTrailingZeros(others);
+					double candidate = length[previous * count + i]
+							+ row[remaining[i]];
+					if (candidate < shortest)
+						shortest = candidate;
+				}
+				length[subset * count + j] = shortest;
+			}
+		}
+		int subset = subsets - 1;
+		int end = 0;
+		double shortest = Double.MAX_VALUE;
+		for (int j = 0; j < count; j++) {
+			double candidate = length[subset * count + j]
+					+ distance[remaining[j]][0];
+			if (candidate < shortest) {
+				shortest = candidate;
+				end = j;
+			}
+		}
+		for (int position = offset + count - 1; position > offset; position--) {
+			tour[position] = remaining[end];
+			int previous = subset & ~(1 << end);
+			double target = length[subset * count + end];
+			double[] row = distance[remaining[end]];
+			for (int others = previous; others != 0; others &= others - 1) {
+				int i = Integer.numberOfTrailingZeros(others);
+				if (length[previous * count + i] + row[remaining[i]] == target) {
+					end = i;
+					break;
+				}
+			}
+			subset = previous;
+		}
+		tour[offset] = remaining[end];
+		return shortest;
+	}
+}
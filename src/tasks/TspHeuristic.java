@@ -0,0 +1,511 @@
+package tasks;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Computes a short, though not necessarily optimal, tour for a Travelling
+ * Salesman Problem instance, to serve as the first upper bound of the exact
+ * search. The tour is built by the greedy edge heuristic and then improved by
+ * 2-opt and Or-opt moves until no move helps or a time budget runs out. Both
+ * stages only consider the few nearest neighbours of every city and read
+ * distances from a {@link tasks.DistanceProvider DistanceProvider} suited to
+ * the size of the instance, so they scale to thousands of cities. Given
+ * more time and a source of randomness, the tour can further be improved by
+ * iterated local search, which keeps perturbing the best tour found so far
+ * and repairing it by the same moves.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+public class TspHeuristic {
+	private static final int NEIGHBOUR_COUNT = 10;
+	private static final double EPSILON = 1e-10;
+	private static final int KICK_WINDOW = 50;
+	private static final int MIN_KICK_CITIES = 8;
+	private static final int STALL_KICKS_PER_CITY = 100;
+	private DistanceProvider distances;
+	private int numberOfCities;
+	private int[][] neighbours;
+	private double[][] neighbourDistance;
+	private int[] tour;
+	private int[] position;
+	private int[] queue;
+	private boolean[] queued;
+	private int queueHead;
+	private int queueSize;
+
+	/**
+	 * @param cities
+	 *            Represents the x and y coordinates of cities
+	 */
+	public TspHeuristic(double[][] cities) {
+		this(new DistanceProvider.NearestNeighbours(
+				new DistanceProvider.Coordinates(cities), NEIGHBOUR_COUNT));
+	}
+
+	/**
+	 * @param distances
+	 *            Represents the distances between the cities; if they already
+	 *            cache enough nearest neighbours of every city, the
+	 *            neighbours are taken from them
+	 */
+	public TspHeuristic(DistanceProvider distances) {
+		this.distances = distances;
+		numberOfCities = distances.size();
+		DistanceProvider.NearestNeighbours nearest;
+		if (distances instanceof DistanceProvider.NearestNeighbours
+				&& ((DistanceProvider.NearestNeighbours) distances)
+						.getCount() >= Math.min(NEIGHBOUR_COUNT,
+						numberOfCities - 1))
+			nearest = (DistanceProvider.NearestNeighbours) distances;
+		else
+			nearest = new DistanceProvider.NearestNeighbours(distances,
+					NEIGHBOUR_COUNT);
+		neighbours = new int[numberOfCities][];
+		neighbourDistance = new double[numberOfCities][];
+		for (int i = 0; i < numberOfCities; i++) {
+			neighbours[i] = nearest.getNeighbours(i);
+			neighbourDistance[i] = nearest.getNeighbourDistances(i);
+		}
+	}
+
+	/**
+	 * Computes a tour within a time budget
+	 *
+	 * @param budgetMillis
+	 *            Represents the time the improvement stage may take
+	 * @return Returns the cities in the order they are visited, starting with
+	 *         city 0
+	 */
+	public int[] solve(long budgetMillis) {
+		long deadline = System.nanoTime() + budgetMillis * 1000000L;
+		greedy();
+		if (numberOfCities >= 4) {
+			startQueue();
+			improve(deadline);
+		}
+		return fromCityZero(tour);
+	}
+
+	/**
+	 * Computes a tour as {@link #solve(long)} does and then applies iterated
+	 * local search until the time budget runs out. Every round perturbs the
+	 * best tour by a random double bridge move, which swaps two adjacent
+	 * stretches of the tour no further than a few dozen cities apart, and
+	 * repairs it by 2-opt and Or-opt moves starting from the six cities whose
+	 * edges the perturbation changed. The result replaces the best tour if it
+	 * is shorter and is discarded otherwise. The search also ends once a
+	 * hundred times as many perturbations as there are cities have failed in
+	 * a row, or once {@link #stopped()} returns true.
+	 *
+	 * @param budgetMillis
+	 *            Represents the longest time the search may take
+	 * @param random
+	 *            Represents the source of the perturbations
+	 * @return Returns the cities of the best tour in the order they are
+	 *         visited, starting with city 0
+	 */
+	public int[] solve(long budgetMillis, Random random) {
+		long deadline = System.nanoTime() + budgetMillis * 1000000L;
+		int[] best = solve(budgetMillis);
+		double bestLength = length(best);
+		improved(best, bestLength);
+		if (numberOfCities < MIN_KICK_CITIES)
+			return best;
+		int[] bestOrder = tour.clone();
+		int stallKicks = STALL_KICKS_PER_CITY * numberOfCities;
+		for (int failed = 0; failed < stallKicks
+				&& System.nanoTime() < deadline && !stopped(); failed++) {
+			kick(random);
+			improve(deadline);
+			double length = length(tour);
+			if (length < bestLength - EPSILON) {
+				failed = -1;
+				bestLength = length;
+				System.arraycopy(tour, 0, bestOrder, 0, numberOfCities);
+				best = fromCityZero(tour);
+				improved(best, length);
+			} else {
+				for (int i = 0; i < numberOfCities; i++) {
+					tour[i] = bestOrder[i];
+					position[tour[i]] = i;
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Called by {@link #solve(long, Random)} with the first tour it finds and
+	 * whenever it finds a tour shorter than every tour before it
+	 *
+	 * @param tour
+	 *            Represents the cities of the new best tour, starting with
+	 *            city 0
+	 * @param length
+	 *            Represents the length of the new best tour
+	 */
+	protected void improved(int[] tour, double length) {
+	}
+
+	/**
+	 * Called by {@link #solve(long, Random)} before every perturbation
+	 *
+	 * @return Returns true if the search should end before its time budget
+	 *         runs out
+	 */
+	protected boolean stopped() {
+		return false;
+	}
+
+	/**
+	 * Computes the length of a tour
+	 *
+	 * @param tour
+	 *            Represents the cities in the order they are visited
+	 * @return Returns the length of the closed tour
+	 */
+	public double length(int[] tour) {
+		double length = 0;
+		for (int i = 0; i < tour.length; i++) {
+			length += distance(tour[i], tour[(i + 1) % tour.length]);
+		}
+		return length;
+	}
+
+	private int[] fromCityZero(int[] order) {
+		int[] result = new int[numberOfCities];
+		for (int i = 0; i < numberOfCities; i++) {
+			result[i] = order[(position[0] + i) % numberOfCities];
+		}
+		return result;
+	}
+
+	private double distance(int city1, int city2) {
+		return distances.get(city1, city2);
+	}
+
+	/**
+	 * Builds a tour by the greedy edge heuristic: the candidate edges to near
+	 * neighbours are taken shortest first whenever neither end already has
+	 * two edges and no cycle is closed. The resulting paths are then chained
+	 * together, each joined to the nearest end of a path not yet on the tour.
+	 */
+	private void greedy() {
+		final int count = neighbours.length > 0 ? neighbours[0].length : 0;
+		Integer[] edges = new Integer[numberOfCities * count];
+		for (int i = 0; i < edges.length; i++) {
+			edges[i] = i;
+		}
+		Arrays.sort(edges, new Comparator<Integer>() {
+			public int compare(Integer edge1, Integer edge2) {
+				return Double.compare(edgeLength(edge1, count),
+						edgeLength(edge2, count));
+			}
+		});
+		int[][] adjacent = new int[numberOfCities][2];
+		int[] degree = new int[numberOfCities];
+		int[] component = new int[numberOfCities];
+		for (int i = 0; i < numberOfCities; i++) {
+			component[i] = i;
+		}
+		for (Integer edge : edges) {
+			int city1 = edge / count;
+			int city2 = neighbours[city1][edge % count];
+			if (degree[city1] == 2 || degree[city2] == 2)
+				continue;
+			int root1 = find(component, city1);
+			int root2 = find(component, city2);
+			if (root1 == root2)
+				continue;
+			component[root1] = root2;
+			adjacent[city1][degree[city1]++] = city2;
+			adjacent[city2][degree[city2]++] = city1;
+		}
+		tour = new int[numberOfCities];
+		position = new int[numberOfCities];
+		int[] pathStart = new int[numberOfCities];
+		int[] pathEnd = new int[numberOfCities];
+		boolean[] placed = new boolean[numberOfCities];
+		int paths = 0;
+		for (int city = 0; city < numberOfCities; city++) {
+			if (degree[city] < 2 && !placed[city]) {
+				pathStart[paths] = city;
+				int previous = -1;
+				int current = city;
+				while (true) {
+					placed[current] = true;
+					int next = -1;
+					for (int k = 0; k < degree[current]; k++) {
+						if (adjacent[current][k] != previous)
+							next = adjacent[current][k];
+					}
+					if (next < 0)
+						break;
+					previous = current;
+					current = next;
+				}
+				pathEnd[paths++] = current;
+			}
+		}
+		boolean[] joined = new boolean[paths];
+		int length = 0;
+		int path = 0;
+		boolean reversed = false;
+		for (int joinedPaths = 0; joinedPaths < paths; joinedPaths++) {
+			joined[path] = true;
+			int first = reversed ? pathEnd[path] : pathStart[path];
+			int previous = -1;
+			int current = first;
+			while (true) {
+				position[current] = length;
+				tour[length++] = current;
+				int next = -1;
+				for (int k = 0; k < degree[current]; k++) {
+					if (adjacent[current][k] != previous)
+						next = adjacent[current][k];
+				}
+				if (next < 0)
+					break;
+				previous = current;
+				current = next;
+			}
+			int last = current;
+			double shortest = Double.MAX_VALUE;
+			for (int candidate = 0; candidate < paths; candidate++) {
+				if (joined[candidate])
+					continue;
+				double toStart = distance(last, pathStart[candidate]);
+				double toEnd = distance(last, pathEnd[candidate]);
+				if (toStart < shortest) {
+					shortest = toStart;
+					path = candidate;
+					reversed = false;
+				}
+				if (toEnd < shortest) {
+					shortest = toEnd;
+					path = candidate;
+					reversed = true;
+				}
+			}
+		}
+	}
+
+	private double edgeLength(int edge, int count) {
+		int city = edge / count;
+		return neighbourDistance[city][edge % count];
+	}
+
+	private int find(int[] component, int city) {
+		while (component[city] != city) {
+			component[city] = component[component[city]];
+			city = component[city];
+		}
+		return city;
+	}
+
+	/**
+	 * Queues every city to be examined by {@link #improve(long)}
+	 */
+	private void startQueue() {
+		queue = new int[numberOfCities];
+		queued = new boolean[numberOfCities];
+		queueHead = 0;
+		queueSize = 0;
+		for (int i = 0; i < numberOfCities; i++) {
+			push(tour[i]);
+		}
+	}
+
+	/**
+	 * Applies improving 2-opt and Or-opt moves at the queued cities until none
+	 * is left or the deadline passes. A city is only examined again after one
+	 * of its tour edges has changed.
+	 */
+	private void improve(long deadline) {
+		for (int examined = 0; queueSize > 0; examined++) {
+			if ((examined & 63) == 0 && System.nanoTime() > deadline)
+				return;
+			int city = queue[queueHead];
+			queueHead = (queueHead + 1) % numberOfCities;
+			queueSize--;
+			queued[city] = false;
+			if (twoOpt(city) || orOpt(city))
+				push(city);
+		}
+	}
+
+	/**
+	 * Applies a random double bridge move: the stretches of the tour starting
+	 * after a random city are swapped and the six cities at the three changed
+	 * edges are queued
+	 */
+	private void kick(Random random) {
+		int window = Math.min(KICK_WINDOW, numberOfCities - 1);
+		int length = 2 + random.nextInt(window - 1);
+		int firstLength = 1 + random.nextInt(length - 1);
+		int start = random.nextInt(numberOfCities);
+		int[] stretch = new int[length];
+		for (int i = 0; i < length; i++) {
+			stretch[i] = tour[(start + 1 + i) % numberOfCities];
+		}
+		push(tour[start]);
+		push(stretch[0]);
+		push(stretch[firstLength - 1]);
+		push(stretch[firstLength]);
+		push(stretch[length - 1]);
+		push(tour[(start + 1 + length) % numberOfCities]);
+		for (int i = 0; i < length; i++) {
+			int city = stretch[(firstLength + i) % length];
+			int index = (start + 1 + i) % numberOfCities;
+			tour[index] = city;
+			position[city] = index;
+		}
+	}
+
+	private void push(int city) {
+		if (queued[city])
+			return;
+		queued[city] = true;
+		queue[(queueHead + queueSize++) % numberOfCities] = city;
+	}
+
+	private int next(int city) {
+		return tour[(position[city] + 1) % numberOfCities];
+	}
+
+	private int previous(int city) {
+		return tour[(position[city] + numberOfCities - 1) % numberOfCities];
+	}
+
+	/**
+	 * Tries to replace an edge of a city and another edge by two shorter
+	 * ones, the new edge at the city going to one of its near neighbours
+	 */
+	private boolean twoOpt(int a) {
+		for (int direction = 0; direction < 2; direction++) {
+			boolean forward = direction == 0;
+			int b = forward ? next(a) : previous(a);
+			double ab = distance(a, b);
+			int[] candidates = neighbours[a];
+			for (int k = 0; k < candidates.length; k++) {
+				int c = candidates[k];
+				double ac = neighbourDistance[a][k];
+				if (ac >= ab - EPSILON)
+					break;
+				int d = forward ? next(c) : previous(c);
+				if (c == b || d == a)
+					continue;
+				double delta = ac + distance(b, d) - ab - distance(c, d);
+				if (delta < -EPSILON) {
+					if (forward)
+						reverse(b, c, true);
+					else
+						reverse(a, d, true);
+					push(b);
+					push(c);
+					push(d);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Tries to move a segment of one to three cities starting at a city to
+	 * between two adjacent cities near either end of the segment, in either
+	 * orientation
+	 */
+	private boolean orOpt(int s1) {
+		for (int segmentLength = 1; segmentLength <= 3
+				&& segmentLength + 3 <= numberOfCities; segmentLength++) {
+			int s2 = tour[(position[s1] + segmentLength - 1) % numberOfCities];
+			int p = previous(s1);
+			int n = next(s2);
+			double removeGain = distance(p, s1) + distance(s2, n)
+					- distance(p, n);
+			if (removeGain <= EPSILON)
+				continue;
+			for (int end = 0; end < 2; end++) {
+				int segmentEnd = end == 0 ? s1 : s2;
+				int[] candidates = neighbours[segmentEnd];
+				for (int k = 0; k < candidates.length; k++) {
+					int c = candidates[k];
+					if (neighbourDistance[segmentEnd][k] >= removeGain)
+						break;
+					if (inSegment(c, s1, segmentLength))
+						continue;
+					for (int side = 0; side < 2; side++) {
+						int x = side == 0 ? c : previous(c);
+						int y = next(x);
+						if (inSegment(x, s1, segmentLength)
+								|| inSegment(y, s1, segmentLength))
+							continue;
+						double xy = distance(x, y);
+						double keep = distance(x, s1) + distance(s2, y) - xy;
+						double flip = distance(x, s2) + distance(s1, y) - xy;
+						if (removeGain - Math.min(keep, flip) > EPSILON) {
+							moveSegment(s1, s2, n, x, keep <= flip);
+							push(p);
+							push(n);
+							push(s2);
+							push(x);
+							push(y);
+							return true;
+						}
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean inSegment(int city, int s1, int segmentLength) {
+		return (position[city] - position[s1] + numberOfCities)
+				% numberOfCities < segmentLength;
+	}
+
+	/**
+	 * Moves the segment from s1 to s2 to between x and the city after it. The
+	 * tour reads p, segment, n, ..., x, y; reversing the stretch from s1 to x
+	 * and then the stretch from x to n leaves p, n, ..., x, reversed segment,
+	 * y, and a third reversal restores the segment's orientation if wanted.
+	 */
+	private void moveSegment(int s1, int s2, int n, int x,
+			boolean keepOrientation) {
+		reverse(s1, x, false);
+		reverse(x, n, false);
+		if (keepOrientation)
+			reverse(s2, s1, false);
+	}
+
+	/**
+	 * Reverses the stretch of the tour running forwards from one city to
+	 * another. When the orientation of the rest of the tour does not matter,
+	 * the shorter of the stretch and its complement is reversed.
+	 */
+	private void reverse(int from, int to, boolean eitherSide) {
+		int i = position[from];
+		int j = position[to];
+		int length = (j - i + numberOfCities) % numberOfCities + 1;
+		if (eitherSide && 2 * length > numberOfCities) {
+			int start = (j + 1) % numberOfCities;
+			j = (i + numberOfCities - 1) % numberOfCities;
+			i = start;
+			length = numberOfCities - length;
+		}
+		for (int swaps = length / 2; swaps > 0; swaps--) {
+			int city1 = tour[i];
+			int city2 = tour[j];
+			tour[i] = city2;
+			position[city2] = i;
+			tour[j] = city1;
+			position[city1] = j;
+			i = (i + 1) % numberOfCities;
+			j = (j + numberOfCities - 1) % numberOfCities;
+		}
+	}
+}
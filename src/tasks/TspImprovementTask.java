@@ -0,0 +1,232 @@
+package tasks;
+
+import java.io.Serializable;
+import java.rmi.RemoteException;
+import java.util.LinkedList;
+import java.util.Random;
+import java.util.UUID;
+
+import system.Computer;
+import system.ResultImpl;
+import system.Shared;
+import api.DataHandle;
+import api.Result;
+import api.SuccessorTask;
+import api.Task;
+import api.TaskImpl;
+
+/**
+ * Improves the upper bound of a Travelling Salesman Problem job while the
+ * {@link tasks.EuclideanTspTask exact search} of the job is running. The task
+ * runs the {@link tasks.TspHeuristic heuristic} with iterated local search for
+ * a fixed time and shares every tour it finds that is shorter than the upper
+ * bound of the job, together with its length, so that the exact search can
+ * prune with it at once and the client receives the tour with the final
+ * Shared value of the job. Tasks started with different seeds perturb their
+ * tours differently. The task reports to a successor which nobody waits for,
+ * so the job does not wait for it, and it stops as soon as its job has
+ * finished on the Computer.
+ *
+ * @author Vijayaraghavan Subbaiah
+ *
+ */
+
+public class TspImprovementTask extends TaskImpl<TSPResult> implements
+		Serializable {
+	private static final long serialVersionUID = -2650197473447052786L;
+	private int levelNumber;
+	private DataHandle<TspInstance> instanceHandle;
+	private long seed;
+	private long budgetMillis;
+	private UUID successorID;
+	private UUID taskID;
+	private transient Computer computer;
+
+	/**
+	 *
+	 * @param levelNumber
+	 *            Represents the level of the decompose phase of divide and
+	 *            conquer paradigm
+	 * @param instanceHandle
+	 *            Represents the handle of the {@link tasks.TspInstance
+	 *            TspInstance} registered with the Space for this job
+	 * @param seed
+	 *            Represents the seed of the perturbations
+	 * @param budgetMillis
+	 *            Represents the time the task runs for
+	 * @param successorID
+	 *            Represents the unique ID of the successor to which this task
+	 *            returns its empty result, which no successor waits for
+	 */
+	TspImprovementTask(int levelNumber, DataHandle<TspInstance> instanceHandle,
+			long seed, long budgetMillis, UUID successorID) {
+		this.levelNumber = levelNumber;
+		this.instanceHandle = instanceHandle;
+		this.seed = seed;
+		this.budgetMillis = budgetMillis;
+		this.successorID = successorID;
+		taskID = UUID.randomUUID();
+	}
+
+	/**
+	 * Searches for short tours until the time budget runs out or the job
+	 * finishes, sharing every tour that beats the upper bound of the job
+	 *
+	 * @return Returns an empty result, as the tours are shared instead
+	 * @throws RemoteException
+	 */
+	@Override
+	public Result<TSPResult> execute() throws RemoteException {
+		TspInstance instance = instanceHandle.resolve(computer);
+		TspHeuristic heuristic = new TspHeuristic(
+				instance.getDistanceProvider()) {
+			@Override
+			protected void improved(int[] tour, double length) {
+				try {
+					TspUpperBound shared = (TspUpperBound) getShared();
+					if (shared == null || length < shared.get())
+						setShared(new TspUpperBound(length, tour));
+				} catch (RemoteException e) {
+					e.printStackTrace();
+				}
+			}
+
+			@Override
+			protected boolean stopped() {
+				try {
+					return !computer.isJobRunning(getJobID());
+				} catch (RemoteException e) {
+					e.printStackTrace();
+				}
+				return true;
+			}
+		};
+		heuristic.solve(budgetMillis, new Random(seed));
+		return new ResultImpl<TSPResult>(levelNumber - 1, null, successorID);
+	}
+
+	/**
+	 * Represents the current level of the decompose phase in which the task is
+	 * in
+	 *
+	 * @return Returns the current level of the decompose phase in which the
+	 *         task is in
+	 */
+	@Override
+	public int getLevelNumber() {
+		return levelNumber;
+	}
+
+	/**
+	 * Defines the implementation of the result composition of divide and
+	 * conquer paradigm
+	 *
+	 * @return Returns null as the task is never decomposed
+	 */
+	@Override
+	public Result<?> composeResult() {
+		return null;
+	}
+
+	/**
+	 * Represents the implementation of how the successor task is generated
+	 *
+	 * @return Returns null as the task is never decomposed
+	 */
+	@Override
+	public SuccessorTask<?> generateSuccessorTask(int jointCounter)
+			throws RemoteException {
+		return null;
+	}
+
+	/**
+	 * Represents the type of the task
+	 *
+	 * @return Returns the actual type of task
+	 */
+	@Override
+	public api.Task.TaskType getTaskType() {
+		return Task.TaskType.CHILDTASK;
+	}
+
+	/**
+	 * Represents the implementation of how the task is further decomposed
+	 *
+	 * @return Returns null as the task is never decomposed
+	 */
+	@Override
+	public LinkedList<Task<?>> generateTasks(UUID successorID, Computer computer)
+			throws RemoteException {
+		return null;
+	}
+
+	/**
+	 * Gets the unique successor ID for this task
+	 *
+	 * @return Represents the unique id of the successor
+	 */
+	@Override
+	public UUID getSuccessorID() {
+		return successorID;
+	}
+
+	/**
+	 * Gets the Shared upper Bound value of the job
+	 *
+	 * @return Returns the Shared upper bound instance which is broadcasted
+	 *         across workers in the compute space for this task
+	 * @throws RemoteException
+	 */
+	@Override
+	public Shared<?> getShared() throws RemoteException {
+		return computer.getShared(getJobID());
+	}
+
+	/**
+	 * Sets the Shared object to be used to broadcast messages across workers in
+	 * the compute space for this task
+	 *
+	 * @param shared
+	 *            Shared object to be used to broadcast messages across workers
+	 *            in the compute space for this task
+	 * @throws RemoteException
+	 */
+	@Override
+	protected void setShared(Shared<?> shared) throws RemoteException {
+		computer.setShared(getJobID(), shared, false);
+	}
+
+	/**
+	 * Sets the instance of the Compute Engine in which the current task is
+	 * executing
+	 *
+	 * @param computer
+	 *            Represents an instance of the Compute Engine
+	 */
+	@Override
+	public void setComputer(Computer computer) {
+		this.computer = computer;
+	}
+
+	/**
+	 * Gets the instance of the Compute Engine in which the current task resides
+	 *
+	 * @return Returns the instance of the Compute Engine in which the task
+	 *         resides
+	 */
+	@Override
+	public Computer getComputer() {
+		return computer;
+	}
+
+	@Override
+	public TaskContainer generate(UUID successorID, Computer computer)
+			throws RemoteException {
+		return null;
+	}
+
+	@Override
+	public UUID getTaskID() {
+		return taskID;
+	}
+}
@@ -0,0 +1,512 @@
+package tasks;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Represents the immutable data of a Travelling Salesman Problem instance: the
+ * coordinates of the cities and the {@link DistanceProvider.Metric metric}
+ * their distances follow. Only these travel with the instance; the
+ * {@link tasks.DistanceProvider distances}, and the shortest edges and
+ * neighbour orderings derived from them, are rebuilt from the coordinates on
+ * every Computer the first time they are needed, stored in a way that suits
+ * the size of the instance. An instance is registered once per job
+ * with the {@link api.Space Space}, which broadcasts it to the Computers, and
+ * {@link tasks.EuclideanTspTask tasks} refer to it through an
+ * {@link api.DataHandle DataHandle}. The instance also carries the choice of
+ * {@link TspInstance.BoundMode lower bound} its search uses, which is read
+ * from the <code>tsp.boundMode</code>, <code>tsp.oneTreeMinCities</code> and
+ * <code>tsp.subgradientIterations</code> system properties of the client, and
+ * the number of remaining cities at which it switches to an exact
+ * {@link tasks.TspHeldKarp dynamic program}, read from
+ * <code>tsp.leafSolverCities</code>. Finally it says how many
+ * {@link tasks.TspImprovementTask improvement tasks} run alongside the search
+ * and for how long, read from <code>tsp.portfolioTasks</code> and
+ * <code>tsp.portfolioMillis</code>.
+ *
+ * @author Vijayaraghavan Subbaiah
+ *
+ */
+
+public class TspInstance implements Serializable {
+	private static final long serialVersionUID = -3081462384709573305L;
+	private static final int MAX_LEAF_SOLVER_CITIES = 16;
+	private double[][] cities;
+	private DistanceProvider.Metric metric;
+	private transient double[][] distance;
+	private transient DistanceProvider distanceProvider;
+	private transient double[][] boundDistance;
+	private transient double[] halfBound;
+	private transient int[] startRank;
+	private transient int[][] neighbours;
+	private transient TspTranspositionTable transpositionTable;
+	private transient boolean transpositionTableBuilt;
+	private BoundMode boundMode;
+	private int oneTreeMinCities;
+	private int subgradientIterations;
+	private int leafSolverCities;
+	private int portfolioTasks;
+	private long portfolioMillis;
+
+	/**
+	 * @param cities
+	 *            Represents the x and y coordinates of cities. cities[i][0] is
+	 *            the x-coordinate of city[i] and cities[i][1] is the
+	 *            y-coordinate of city[i].
+	 */
+	public TspInstance(double[][] cities) {
+		this(cities, DistanceProvider.Metric.EUCLIDEAN);
+	}
+
+	/**
+	 * @param cities
+	 *            Represents the x and y coordinates of cities
+	 * @param metric
+	 *            Represents how the distances between cities follow from
+	 *            their coordinates
+	 */
+	public TspInstance(double[][] cities, DistanceProvider.Metric metric) {
+		this(cities, metric, BoundMode.valueOf(System.getProperty(
+				"tsp.boundMode", "HALF_EDGE")));
+	}
+
+	private TspInstance(double[][] cities, DistanceProvider.Metric metric,
+			BoundMode boundMode) {
+		this(cities, metric, boundMode, Integer.getInteger(
+				"tsp.oneTreeMinCities", 6),
+				Integer.getInteger("tsp.subgradientIterations", 20), Integer
+						.getInteger("tsp.leafSolverCities",
+								boundMode.leafSolverCities), Integer.getInteger(
+						"tsp.portfolioTasks", 0), Long.getLong(
+						"tsp.portfolioMillis", 2000));
+	}
+
+	/**
+	 * @param cities
+	 *            Represents the x and y coordinates of cities
+	 * @param boundMode
+	 *            Represents the lower bound used to prune partial tours
+	 * @param oneTreeMinCities
+	 *            Represents the fewest remaining cities for which a partial
+	 *            tour is bounded by the 1-tree in ONE_TREE mode; partial tours
+	 *            closer to completion use the half edge bound
+	 * @param subgradientIterations
+	 *            Represents the number of subgradient iterations used to
+	 *            tighten each 1-tree bound
+	 * @param leafSolverCities
+	 *            Represents the largest number of remaining cities for which
+	 *            the rest of a partial tour is solved by dynamic programming
+	 *            instead of being searched; 0 disables the dynamic program
+	 *            and values above 16 are treated as 16
+	 */
+	public TspInstance(double[][] cities, BoundMode boundMode,
+			int oneTreeMinCities, int subgradientIterations,
+			int leafSolverCities) {
+		this(cities, DistanceProvider.Metric.EUCLIDEAN, boundMode,
+				oneTreeMinCities, subgradientIterations, leafSolverCities, 0,
+				0);
+	}
+
+	/**
+	 * @param cities
+	 *            Represents the x and y coordinates of cities
+	 * @param metric
+	 *            Represents how the distances between cities follow from
+	 *            their coordinates
+	 * @param boundMode
+	 *            Represents the lower bound used to prune partial tours
+	 * @param oneTreeMinCities
+	 *            Represents the fewest remaining cities for which a partial
+	 *            tour is bounded by the 1-tree in ONE_TREE mode
+	 * @param subgradientIterations
+	 *            Represents the number of subgradient iterations used to
+	 *            tighten each 1-tree bound
+	 * @param leafSolverCities
+	 *            Represents the largest number of remaining cities for which
+	 *            the rest of a partial tour is solved by dynamic programming
+	 * @param portfolioTasks
+	 *            Represents the number of improvement tasks started next to
+	 *            the exact search, each of which occupies one worker thread
+	 *            of a Computer; 0 disables them
+	 * @param portfolioMillis
+	 *            Represents the time each improvement task runs for
+	 */
+	public TspInstance(double[][] cities, DistanceProvider.Metric metric,
+			BoundMode boundMode, int oneTreeMinCities,
+			int subgradientIterations, int leafSolverCities,
+			int portfolioTasks, long portfolioMillis) {
+		this.cities = cities;
+		this.metric = metric;
+		this.portfolioTasks = portfolioTasks;
+		this.portfolioMillis = portfolioMillis;
+		this.boundMode = boundMode;
+		this.oneTreeMinCities = oneTreeMinCities;
+		this.subgradientIterations = subgradientIterations;
+		this.leafSolverCities = Math.min(leafSolverCities,
+				MAX_LEAF_SOLVER_CITIES);
+	}
+
+	/**
+	 * Represents the number of cities of the instance
+	 *
+	 * @return Returns the number of cities
+	 */
+	public int size() {
+		return cities.length;
+	}
+
+	/**
+	 * Gets the coordinates of the cities
+	 *
+	 * @return Returns the x and y coordinates of every city
+	 */
+	public double[][] getCities() {
+		return cities;
+	}
+
+	/**
+	 * Gets the way the distances between cities follow from their
+	 * coordinates
+	 *
+	 * @return Returns the metric of the instance
+	 */
+	public DistanceProvider.Metric getMetric() {
+		return metric;
+	}
+
+	/**
+	 * Gets the distance between every pair of cities as a full matrix, which
+	 * the exact search reads row by row. The matrix is shared with the
+	 * distance provider if that is a matrix too, and built from the
+	 * coordinates otherwise.
+	 *
+	 * @return Returns the distance matrix
+	 */
+	public synchronized double[][] getDistance() {
+		if (distance == null) {
+			DistanceProvider provider = getDistanceProvider();
+			if (provider instanceof DistanceProvider.Matrix)
+				distance = ((DistanceProvider.Matrix) provider).getRows();
+			else
+				distance = new DistanceProvider.Matrix(cities, metric)
+						.getRows();
+		}
+		return distance;
+	}
+
+	/**
+	 * Gets the distances between cities in the representation chosen for the
+	 * size of the instance by
+	 * {@link #chooseDistanceProvider(double[][], DistanceProvider.Metric)}
+	 *
+	 * @return Returns the distance provider of the instance
+	 */
+	public synchronized DistanceProvider getDistanceProvider() {
+		if (distanceProvider == null)
+			distanceProvider = chooseDistanceProvider(cities, metric);
+		return distanceProvider;
+	}
+
+	/**
+	 * Chooses how to store the distances between cities by their number: a
+	 * full matrix for up to {@link DistanceProvider#MATRIX_MAX_CITIES}
+	 * cities, which the exact search needs anyway, and otherwise computation
+	 * from the coordinates, with the distances to the nearest neighbours of
+	 * every city cached
+	 *
+	 * @param cities
+	 *            Represents the x and y coordinates of cities
+	 * @param metric
+	 *            Represents how distances follow from the coordinates
+	 * @return Returns the distance provider for the cities
+	 */
+	static DistanceProvider chooseDistanceProvider(double[][] cities,
+			DistanceProvider.Metric metric) {
+		if (cities.length <= DistanceProvider.MATRIX_MAX_CITIES)
+			return new DistanceProvider.Matrix(cities, metric);
+		return new DistanceProvider.NearestNeighbours(
+				new DistanceProvider.Coordinates(cities, metric),
+				DistanceProvider.CACHED_NEIGHBOURS);
+	}
+
+	/**
+	 * Gets the two shortest edges leaving every city
+	 *
+	 * @return Returns, for every city, the shortest edge at index 0 and the
+	 *         second shortest at index 1
+	 */
+	public synchronized double[][] getBoundDistance() {
+		if (boundDistance == null)
+			buildBounds();
+		return boundDistance;
+	}
+
+	/**
+	 * Gets, for every city, the share of the lower bound charged for a city
+	 * which is not yet on the tour
+	 *
+	 * @return Returns half the sum of the two shortest edges of every city
+	 */
+	public synchronized double[] getHalfBound() {
+		if (halfBound == null)
+			buildBounds();
+		return halfBound;
+	}
+
+	/**
+	 * Gets the position of every city when the cities are ordered by their
+	 * distance from city 0, ties broken by index. A tour is only searched in
+	 * the direction in which its first city has a lower position than its
+	 * last city, so the edge closing the tour is never shorter than the edge
+	 * leaving city 0.
+	 *
+	 * @return Returns the position of every city other than city 0, and -1
+	 *         for city 0
+	 */
+	public synchronized int[] getStartRank() {
+		if (startRank == null)
+			buildBounds();
+		return startRank;
+	}
+
+	/**
+	 * Builds the two shortest edges of every city, half their sum and the
+	 * position of every city by its distance from city 0. Above
+	 * {@link DistanceProvider#MATRIX_MAX_CITIES} cities the shortest edges are
+	 * read from the nearest neighbour lists of the distance provider, so that
+	 * no pair of cities is looked at twice; below it they are read from the
+	 * matrix.
+	 */
+	private void buildBounds() {
+		int length = cities.length;
+		final DistanceProvider provider = getDistanceProvider();
+		double[][] shortest = new double[length][2];
+		double[] half = new double[length];
+		for (int i = 0; i < length; i++) {
+			double min = Double.MAX_VALUE;
+			double secondMin = Double.MAX_VALUE;
+			if (provider instanceof DistanceProvider.NearestNeighbours) {
+				double[] nearest = ((DistanceProvider.NearestNeighbours) provider)
+						.getNeighbourDistances(i);
+				if (nearest.length > 0)
+					min = nearest[0];
+				if (nearest.length > 1)
+					secondMin = nearest[1];
+			} else {
+				for (int j = 0; j < length; j++) {
+					if (i == j)
+						continue;
+					double d = provider.get(i, j);
+					if (d < min) {
+						secondMin = min;
+						min = d;
+					} else if (d < secondMin) {
+						secondMin = d;
+					}
+				}
+			}
+			shortest[i][0] = min;
+			shortest[i][1] = secondMin;
+			half[i] = (min + secondMin) / 2;
+		}
+		Integer[] byStartDistance = new Integer[length - 1];
+		for (int i = 1; i < length; i++) {
+			byStartDistance[i - 1] = i;
+		}
+		Arrays.sort(byStartDistance, new Comparator<Integer>() {
+			public int compare(Integer city1, Integer city2) {
+				int order = Double.compare(provider.get(0, city1),
+						provider.get(0, city2));
+				return order != 0 ? order : city1.compareTo(city2);
+			}
+		});
+		int[] rank = new int[length];
+		rank[0] = -1;
+		for (int i = 0; i < byStartDistance.length; i++) {
+			rank[byStartDistance[i]] = i;
+		}
+		boundDistance = shortest;
+		halfBound = half;
+		startRank = rank;
+	}
+
+	/**
+	 * Gets, for every city, the cities other than city 0 ordered from the
+	 * nearest to the farthest, ties broken by index. The orderings are built
+	 * the first time they are needed on each Computer rather than being sent
+	 * with the instance. Above {@link DistanceProvider#MATRIX_MAX_CITIES}
+	 * cities only the nearest neighbour lists of the distance provider are in
+	 * order of distance, and the remaining cities follow them by index, so
+	 * that the orderings are built without the distance matrix.
+	 *
+	 * @return Returns the neighbours of every city, nearest first
+	 */
+	public synchronized int[][] getNeighbours() {
+		if (neighbours == null) {
+			int length = cities.length;
+			DistanceProvider provider = getDistanceProvider();
+			int[][] ordered = new int[length][];
+			if (provider instanceof DistanceProvider.NearestNeighbours) {
+				DistanceProvider.NearestNeighbours nearest = (DistanceProvider.NearestNeighbours) provider;
+				boolean[] listed = new boolean[length];
+				for (int i = 0; i < length; i++) {
+					int[] row = new int[i == 0 ? length - 1 : length - 2];
+					int count = 0;
+					for (int city : nearest.getNeighbours(i)) {
+						if (city != 0) {
+							row[count++] = city;
+							listed[city] = true;
+						}
+					}
+					for (int j = 1; j < length; j++) {
+						if (j != i && !listed[j])
+							row[count++] = j;
+					}
+					for (int city : nearest.getNeighbours(i)) {
+						listed[city] = false;
+					}
+					ordered[i] = row;
+				}
+			} else {
+				Integer[] others = new Integer[length - 1];
+				for (int i = 0; i < length; i++) {
+					final DistanceProvider distance = provider;
+					final int from = i;
+					int count = 0;
+					for (int j = 1; j < length; j++) {
+						if (j != i)
+							others[count++] = j;
+					}
+					Arrays.sort(others, 0, count, new Comparator<Integer>() {
+						public int compare(Integer city1, Integer city2) {
+							int order = Double.compare(distance.get(from, city1),
+									distance.get(from, city2));
+							return order != 0 ? order : city1.compareTo(city2);
+						}
+					});
+					ordered[i] = new int[count];
+					for (int j = 0; j < count; j++) {
+						ordered[i][j] = others[j];
+					}
+				}
+			}
+			neighbours = ordered;
+		}
+		return neighbours;
+	}
+
+	/**
+	 * Gets the {@link tasks.TspTranspositionTable transposition table} shared
+	 * by the searches of the job on this Computer. The table is created the
+	 * first time it is needed, with the number of entries given by the
+	 * <code>computer.transpositionEntries</code> system property of the
+	 * Computer, so that every Computer decides how much memory it spends on
+	 * it.
+	 *
+	 * @return Returns the transposition table, or null if the instance has
+	 *         more than 64 cities or the property is 0
+	 */
+	synchronized TspTranspositionTable getTranspositionTable() {
+		if (!transpositionTableBuilt) {
+			int entries = Integer.getInteger("computer.transpositionEntries",
+					1 << 20);
+			if (entries > 0
+					&& cities.length <= TspTranspositionTable.MAX_CITIES)
+				transpositionTable = new TspTranspositionTable(entries);
+			transpositionTableBuilt = true;
+		}
+		return transpositionTable;
+	}
+
+	/**
+	 * Gets the lower bound used to prune partial tours
+	 *
+	 * @return Returns the bound mode
+	 */
+	public BoundMode getBoundMode() {
+		return boundMode;
+	}
+
+	/**
+	 * Decides whether a partial tour is bounded by the 1-tree
+	 *
+	 * @param remainingCities
+	 *            Represents the number of cities not yet on the partial tour
+	 * @return Returns true if the 1-tree bound applies to the partial tour
+	 */
+	public boolean usesOneTree(int remainingCities) {
+		return boundMode == BoundMode.ONE_TREE
+				&& remainingCities >= oneTreeMinCities;
+	}
+
+	/**
+	 * Gets the number of subgradient iterations used to tighten each 1-tree
+	 * bound
+	 *
+	 * @return Returns the number of subgradient iterations
+	 */
+	public int getSubgradientIterations() {
+		return subgradientIterations;
+	}
+
+	/**
+	 * Decides whether the rest of a partial tour is solved by dynamic
+	 * programming
+	 *
+	 * @param remainingCities
+	 *            Represents the number of cities not yet on the partial tour
+	 * @return Returns true if the rest of the partial tour is solved exactly
+	 *         instead of being searched
+	 */
+	public boolean usesLeafSolver(int remainingCities) {
+		return remainingCities > 1 && remainingCities <= leafSolverCities;
+	}
+
+	/**
+	 * Gets the number of improvement tasks started next to the exact search
+	 *
+	 * @return Returns the number of improvement tasks
+	 */
+	public int getPortfolioTasks() {
+		return portfolioTasks;
+	}
+
+	/**
+	 * Gets the time each improvement task runs for
+	 *
+	 * @return Returns the budget of an improvement task in milliseconds
+	 */
+	public long getPortfolioMillis() {
+		return portfolioMillis;
+	}
+
+	/**
+	 * Represents the lower bounds available to prune partial tours
+	 */
+	public enum BoundMode {
+		/**
+		 * Half the sum of the two shortest edges of every city not yet on the
+		 * tour, which is cheap but weak
+		 */
+		HALF_EDGE(16),
+		/**
+		 * The half edge bound, raised to the 1-tree bound for partial tours
+		 * with at least the configured number of cities remaining
+		 */
+		ONE_TREE(10);
+
+		private int leafSolverCities;
+
+		/**
+		 * @param leafSolverCities
+		 *            Represents the default number of remaining cities up to
+		 *            which a search is replaced by dynamic programming, the
+		 *            point at which the dynamic program stops being faster than
+		 *            the search under this bound
+		 */
+		BoundMode(int leafSolverCities) {
+			this.leafSolverCities = leafSolverCities;
+		}
+	}
+}
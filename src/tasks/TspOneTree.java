@@ -0,0 +1,162 @@
+package tasks;
+
+/**
+ * Computes the 1-tree lower bound on the length of the rest of a partial
+ * tour. The rest of the tour leaves the last city, passes through every
+ * remaining city and returns to city 0; without its first and last edge it is
+ * a spanning tree of the remaining cities. Its length is therefore at least
+ * the minimum spanning tree of the remaining cities plus the shortest edge
+ * from the last city into them and the shortest edge from them back to city
+ * 0, which has to come from a city further from city 0 than the first city of
+ * the tour. The bound is optionally tightened by subgradient optimisation of
+ * Lagrangian city penalties, which push the tree towards a path in which every
+ * remaining city has two edges. All scratch space is allocated once, so an
+ * instance can be reused for every node of a search by one thread.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+class TspOneTree {
+	private double[][] distance;
+	private int[] startRank;
+	private int iterations;
+	private double[] penalty;
+	private double[] key;
+	private int[] parent;
+	private boolean[] inTree;
+	private int[] degree;
+
+	/**
+	 *
+	 * @param instance
+	 *            Represents the instance whose partial tours are bounded
+	 */
+	TspOneTree(TspInstance instance) {
+		int numberOfCities = instance.size();
+		distance = instance.getDistance();
+		startRank = instance.getStartRank();
+		iterations = instance.getSubgradientIterations();
+		penalty = new double[numberOfCities];
+		key = new double[numberOfCities];
+		parent = new int[numberOfCities];
+		inTree = new boolean[numberOfCities];
+		degree = new int[numberOfCities];
+	}
+
+	/**
+	 * Computes a lower bound on the length of the rest of a partial tour
+	 *
+	 * @param last
+	 *            Represents the last city of the partial tour
+	 * @param first
+	 *            Represents the first city after city 0 on the partial tour;
+	 *            the tour can only be closed from a remaining city further
+	 *            from city 0
+	 * @param remaining
+	 *            Represents the cities not yet on the partial tour
+	 * @param count
+	 *            Represents the number of entries of remaining in use
+	 * @param budget
+	 *            Represents the length beyond which the rest of the tour is of
+	 *            no interest, which ends the optimisation early
+	 * @return Returns the lower bound
+	 */
+	double bound(int last, int first, int[] remaining, int count,
+			double budget) {
+		if (count == 1)
+			return distance[last][remaining[0]] + distance[remaining[0]][0];
+		for (int i = 0; i < count; i++) {
+			penalty[i] = 0;
+		}
+		double best = Double.NEGATIVE_INFINITY;
+		double scale = 2;
+		for (int iteration = 0;; iteration++) {
+			double value = oneTree(last, startRank[first], remaining, count);
+			if (value > best)
+				best = value;
+			else
+				scale /= 2;
+			if (best >= budget || iteration == iterations)
+				return best;
+			int norm = 0;
+			for (int i = 0; i < count; i++) {
+				norm += (degree[i] - 2) * (degree[i] - 2);
+			}
+			if (norm == 0)
+				return best;
+			double target = budget < Double.MAX_VALUE ? budget : value * 1.1;
+			double step = scale * (target - value) / norm;
+			for (int i = 0; i < count; i++) {
+				penalty[i] += step * (degree[i] - 2);
+			}
+		}
+	}
+
+	/**
+	 * Computes the 1-tree under the current penalties and records the degree
+	 * of every remaining city in it
+	 *
+	 * @return Returns the length of the 1-tree minus twice the penalties,
+	 *         which is a lower bound for any penalties
+	 */
+	private double oneTree(int last, int firstRank, int[] remaining,
+			int count) {
+		double length = 0;
+		for (int i = 0; i < count; i++) {
+			key[i] = Double.MAX_VALUE;
+			inTree[i] = false;
+			degree[i] = 0;
+			length -= 2 * penalty[i];
+		}
+		key[0] = 0;
+		parent[0] = -1;
+		for (int added = 0; added < count; added++) {
+			int next = -1;
+			for (int i = 0; i < count; i++) {
+				if (!inTree[i] && (next < 0 || key[i] < key[next]))
+					next = i;
+			}
+			inTree[next] = true;
+			length += key[next];
+			if (parent[next] >= 0) {
+				degree[next]++;
+				degree[parent[next]]++;
+			}
+			double[] row = distance[remaining[next]];
+			for (int i = 0; i < count; i++) {
+				if (inTree[i])
+					continue;
+				double weight = row[remaining[i]] + penalty[next] + penalty[i];
+				if (weight < key[i]) {
+					key[i] = weight;
+					parent[i] = next;
+				}
+			}
+		}
+		length += attach(distance[last], -1, remaining, count);
+		length += attach(distance[0], firstRank, remaining, count);
+		return length;
+	}
+
+	/**
+	 * Finds the shortest penalised edge from a city into the remaining cities
+	 * ranked above the given rank and counts it towards the degree of the
+	 * city it reaches
+	 */
+	private double attach(double[] row, int minRank, int[] remaining,
+			int count) {
+		int nearest = -1;
+		double shortest = Double.MAX_VALUE;
+		for (int i = 0; i < count; i++) {
+			if (startRank[remaining[i]] <= minRank)
+				continue;
+			double weight = row[remaining[i]] + penalty[i];
+			if (nearest < 0 || weight < shortest) {
+				shortest = weight;
+				nearest = i;
+			}
+		}
+		degree[nearest]++;
+		return shortest;
+	}
+}
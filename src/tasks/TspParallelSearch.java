@@ -0,0 +1,277 @@
+package tasks;
+
+import java.util.LinkedList;
+
+/**
+ * Represents the branch and bound search of a {@link tasks.EuclideanTspTask
+ * EuclideanTspTask} which is not decomposed any further, spread over the
+ * thread executing the task and whichever threads its Computer lends it while
+ * they would otherwise be idle. Every thread runs its own
+ * {@link tasks.TspBranchAndBound sequential search}. While a thread is waiting
+ * for work, or the Computer has a thread to lend, the searches give away the
+ * untried branch nearest their roots, which is queued here and taken by the
+ * next thread looking for work. Lent threads leave as soon as the queue is
+ * empty; the thread executing the task waits for branches until every branch
+ * has been searched, so that the task still returns a single complete
+ * result. All searches prune with one upper bound, the shorter of the Shared
+ * value of the job on the Computer and the best tour found here.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+class TspParallelSearch {
+	private TspInstance instance;
+	private LinkedList<Branch> branches;
+	private int unfinished;
+	private volatile int queued;
+	private volatile int waiting;
+	private volatile double upperBound;
+	private int[] bestTour;
+	private double bestLength;
+	private TspSearchStatistics statistics;
+	private Runnable helper;
+
+	/**
+	 *
+	 * @param instance
+	 *            Represents the instance to be searched
+	 */
+	TspParallelSearch(TspInstance instance) {
+		this.instance = instance;
+		branches = new LinkedList<Branch>();
+		helper = new Runnable() {
+			public void run() {
+				work(false);
+			}
+		};
+	}
+
+	/**
+	 * Searches for the shortest tour extending a partial tour, on the calling
+	 * thread and any threads lent to the search, and returns once the whole
+	 * subtree has been searched
+	 *
+	 * @param path
+	 *            Represents the partial tour, starting with city 0
+	 * @param visitedDistance
+	 *            Represents the length of the partial tour
+	 * @param upperBound
+	 *            Represents the length a tour has to beat
+	 * @return Returns true if a tour shorter than the upper bound was found
+	 */
+	boolean search(short[] path, double visitedDistance, double upperBound) {
+		synchronized (this) {
+			this.upperBound = upperBound;
+			bestTour = null;
+			statistics = new TspSearchStatistics();
+			branches.addLast(new Branch(path, visitedDistance));
+			queued = branches.size();
+			unfinished = 1;
+		}
+		work(true);
+		synchronized (this) {
+			return bestTour != null;
+		}
+	}
+
+	/**
+	 * Searches queued branches until none is left. The thread executing the
+	 * task also waits for branches still to be given away by other threads,
+	 * unless it is interrupted, in which case it returns at once with its
+	 * interrupt status set and the search covers only the branches finished.
+	 *
+	 * @param owner
+	 *            Represents whether the calling thread is the one executing
+	 *            the task
+	 */
+	private void work(boolean owner) {
+		TspBranchAndBound search = null;
+		while (true) {
+			Branch branch;
+			synchronized (this) {
+				while (owner && branches.isEmpty() && unfinished > 0) {
+					waiting++;
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					} finally {
+						waiting--;
+					}
+				}
+				if (branches.isEmpty())
+					return;
+				branch = branches.removeFirst();
+				queued = branches.size();
+			}
+			if (search == null)
+				search = newSearch();
+			try {
+				double bound = Math.min(upperBound, sharedUpperBound());
+				if (search.search(branch.path, branch.length, bound))
+					record(search.getBestTour(), search.getBestLength());
+			} finally {
+				synchronized (this) {
+					statistics.add(search.getStatistics());
+					if (--unfinished == 0)
+						notifyAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates the sequential search run by one thread, which prunes with the
+	 * common upper bound and gives away branches through this search
+	 */
+	private TspBranchAndBound newSearch() {
+		return new TspBranchAndBound(instance) {
+			@Override
+			void improved(double tourLength) {
+				lowerUpperBound(tourLength);
+				TspParallelSearch.this.improved(tourLength);
+			}
+
+			@Override
+			double sharedUpperBound() {
+				return Math.min(upperBound,
+						TspParallelSearch.this.sharedUpperBound());
+			}
+
+			@Override
+			boolean wantsWork() {
+				return TspParallelSearch.this.wantsWork();
+			}
+
+			@Override
+			void shareWork(short[] path, double length) {
+				share(path, length);
+			}
+		};
+	}
+
+	/**
+	 * Decides whether a search should give away a branch: only if no branch
+	 * is queued already, and some thread is waiting for one or could be
+	 * lent. If branches are queued, a thread is lent for them instead.
+	 */
+	private boolean wantsWork() {
+		if (queued > 0) {
+			if (hasIdleWorker())
+				lendIdleWorker(helper);
+			return false;
+		}
+		return waiting > 0 || hasIdleWorker();
+	}
+
+	/**
+	 * Queues a branch given away by a search and finds a thread for it
+	 */
+	private void share(short[] path, double length) {
+		synchronized (this) {
+			branches.addLast(new Branch(path, length));
+			queued = branches.size();
+			unfinished++;
+			if (waiting > 0) {
+				notifyAll();
+				return;
+			}
+		}
+		lendIdleWorker(helper);
+	}
+
+	private synchronized void lowerUpperBound(double tourLength) {
+		if (tourLength < upperBound)
+			upperBound = tourLength;
+	}
+
+	private synchronized void record(int[] tour, double length) {
+		if (bestTour == null || length < bestLength) {
+			bestTour = tour;
+			bestLength = length;
+		}
+	}
+
+	/**
+	 * Called whenever one of the searches finds a tour shorter than every
+	 * tour it found before, so that the new upper bound can be shared
+	 *
+	 * @param tourLength
+	 *            Represents the length of the new tour
+	 */
+	void improved(double tourLength) {
+	}
+
+	/**
+	 * Called every few nodes of every search so that it can prune with
+	 * shorter tours found outside this search
+	 *
+	 * @return Returns the length of the shortest tour known outside the
+	 *         search
+	 */
+	double sharedUpperBound() {
+		return Double.MAX_VALUE;
+	}
+
+	/**
+	 * Called to find out whether a thread could be lent to the search
+	 *
+	 * @return Returns true if {@link #lendIdleWorker(Runnable)} would
+	 *         currently succeed
+	 */
+	boolean hasIdleWorker() {
+		return false;
+	}
+
+	/**
+	 * Called to have work run on a thread lent to the search
+	 *
+	 * @param work
+	 *            Represents the work
+	 * @return Returns true if a thread was lent and runs the work
+	 */
+	boolean lendIdleWorker(Runnable work) {
+		return false;
+	}
+
+	/**
+	 * Gets the best tour found by the last search
+	 *
+	 * @return Returns the cities of the tour in the order they are visited
+	 */
+	synchronized int[] getBestTour() {
+		return bestTour.clone();
+	}
+
+	/**
+	 * Gets the length of the best tour found by the last search
+	 *
+	 * @return Returns the length of the best tour
+	 */
+	synchronized double getBestLength() {
+		return bestLength;
+	}
+
+	/**
+	 * Gets the work done by the last search on all threads
+	 *
+	 * @return Returns the statistics added up over every branch searched
+	 */
+	synchronized TspSearchStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Represents a partial tour waiting to be searched
+	 */
+	private static class Branch {
+		private short[] path;
+		private double length;
+
+		Branch(short[] path, double length) {
+			this.path = path;
+			this.length = length;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package tasks;
+
+import java.io.Serializable;
+
+/**
+ * Represents the work done by the branch and bound searches of a Travelling
+ * Salesman Problem job: the partial tours they expanded and how often the
+ * {@link tasks.TspTranspositionTable transposition table} of their Computer
+ * was consulted, held an entry for the partial tour and showed that the
+ * partial tour was dominated. The statistics of the searches of a job are
+ * added up on the way back to the client.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+public class TspSearchStatistics implements Serializable {
+	private static final long serialVersionUID = -5406893542946178329L;
+	private long nodeCount;
+	private long transpositionLookups;
+	private long transpositionHits;
+	private long transpositionPrunes;
+
+	/**
+	 * Creates statistics of no work at all
+	 */
+	public TspSearchStatistics() {
+	}
+
+	/**
+	 * @param nodeCount
+	 *            Represents the number of partial tours expanded
+	 * @param transpositionLookups
+	 *            Represents the number of partial tours looked up in the
+	 *            transposition table
+	 * @param transpositionHits
+	 *            Represents the number of lookups which found an entry for the
+	 *            same visited cities and last city
+	 * @param transpositionPrunes
+	 *            Represents the number of lookups which found the partial tour
+	 *            dominated
+	 */
+	TspSearchStatistics(long nodeCount, long transpositionLookups,
+			long transpositionHits, long transpositionPrunes) {
+		this.nodeCount = nodeCount;
+		this.transpositionLookups = transpositionLookups;
+		this.transpositionHits = transpositionHits;
+		this.transpositionPrunes = transpositionPrunes;
+	}
+
+	/**
+	 * Adds the statistics of another search to these
+	 *
+	 * @param other
+	 *            Represents the statistics to be added
+	 */
+	public synchronized void add(TspSearchStatistics other) {
+		nodeCount += other.nodeCount;
+		transpositionLookups += other.transpositionLookups;
+		transpositionHits += other.transpositionHits;
+		transpositionPrunes += other.transpositionPrunes;
+	}
+
+	/**
+	 * Gets the number of partial tours expanded
+	 *
+	 * @return Returns the number of expanded partial tours
+	 */
+	public synchronized long getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Gets the number of partial tours looked up in the transposition table
+	 *
+	 * @return Returns the number of lookups
+	 */
+	public synchronized long getTranspositionLookups() {
+		return transpositionLookups;
+	}
+
+	/**
+	 * Gets the number of lookups which found an entry for the same visited
+	 * cities and last city
+	 *
+	 * @return Returns the number of hits
+	 */
+	public synchronized long getTranspositionHits() {
+		return transpositionHits;
+	}
+
+	/**
+	 * Gets the number of partial tours discarded because the transposition
+	 * table held a shorter partial tour over the same cities
+	 *
+	 * @return Returns the number of dominated partial tours
+	 */
+	public synchronized long getTranspositionPrunes() {
+		return transpositionPrunes;
+	}
+}
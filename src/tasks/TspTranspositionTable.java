@@ -0,0 +1,125 @@
+package tasks;
+
+/**
+ * Represents the transposition table of a Travelling Salesman Problem job on
+ * one Computer. Two partial tours over the same cities ending in the same
+ * city can be finished in the same ways, so the longer one can be discarded,
+ * provided its first city is not closer to city 0 than the first city of the
+ * shorter one: tours are only searched in the direction in which the first
+ * city is closer to city 0 than the last, so a lower ranked first city allows
+ * more ways to finish. The table remembers the shortest partial tour seen for
+ * a set of visited cities, given as a bit mask, and a last city, which
+ * confines it to instances of at most 64 cities.
+ * <p>
+ * The table has a fixed number of entries, grouped into buckets of two. The
+ * first entry of a bucket holds whichever of its partial tours has more
+ * cities left, as discarding it saves the larger subtree, and the second is
+ * replaced by every new partial tour that does not fit the first. Each entry
+ * is two words in primitive arrays: the length rounded up to a float, the
+ * rank of the first city and the last city packed into one, and the visited
+ * cities xor that data in the other. The worker threads of a Computer share
+ * the table without locking; an entry read while another thread was writing
+ * it fails the xor check and is treated as missing.
+ *
+ * @author Vijayaraghavan Subbaiah
+ */
+
+class TspTranspositionTable {
+	/**
+	 * Represents a lookup which found no entry for the partial tour
+	 */
+	static final int MISS = 0;
+	/**
+	 * Represents a lookup which found an entry for the partial tour which
+	 * does not dominate it
+	 */
+	static final int HIT = 1;
+	/**
+	 * Represents a lookup which found the partial tour dominated
+	 */
+	static final int DOMINATED = 2;
+	/**
+	 * Represents the largest number of cities the table can be used for
+	 */
+	static final int MAX_CITIES = 64;
+	private long[] checks;
+	private long[] data;
+	private int bucketMask;
+
+	/**
+	 *
+	 * @param entries
+	 *            Represents the number of entries of the table, which is
+	 *            rounded down to a power of two of at least two
+	 */
+	TspTranspositionTable(int entries) {
+		int size = Integer.highestOneBit(Math.max(entries, 2));
+		checks = new long[size];
+		data = new long[size];
+		bucketMask = size - 2;
+	}
+
+	/**
+	 * Looks up a partial tour and records it unless a partial tour at least
+	 * as short is recorded for the same visited cities and last city
+	 *
+	 * @param visited
+	 *            Represents the cities of the partial tour as a bit mask
+	 * @param last
+	 *            Represents the last city of the partial tour
+	 * @param firstRank
+	 *            Represents the rank of the first city after city 0 in the
+	 *            order of distance from city 0
+	 * @param length
+	 *            Represents the length of the partial tour
+	 * @return Returns {@link #DOMINATED} if the partial tour can be
+	 *         discarded, {@link #HIT} if an entry for the same cities was
+	 *         found and {@link #MISS} otherwise
+	 */
+	int probe(long visited, int last, int firstRank, double length) {
+		float rounded = (float) length;
+		if (rounded < length)
+			rounded = Math.nextUp(rounded);
+		long entry = (long) Float.floatToIntBits(rounded) << 32
+				| firstRank << 8 | last;
+		int bucket = index(visited, last);
+		for (int slot = bucket; slot < bucket + 2; slot++) {
+			long existing = data[slot];
+			if (existing == 0 || (checks[slot] ^ existing) != visited
+					|| (int) (existing & 0xFF) != last)
+				continue;
+			float recorded = Float.intBitsToFloat((int) (existing >>> 32));
+			if (recorded < length
+					&& (int) (existing >>> 8 & 0xFF) <= firstRank)
+				return DOMINATED;
+			if (rounded < recorded)
+				write(slot, visited, entry);
+			return HIT;
+		}
+		long first = data[bucket];
+		if (first == 0
+				|| Long.bitCount(checks[bucket] ^ first) >= Long
+						.bitCount(visited)) {
+			if (first != 0) {
+				data[bucket + 1] = first;
+				checks[bucket + 1] = checks[bucket];
+			}
+			write(bucket, visited, entry);
+		} else {
+			write(bucket + 1, visited, entry);
+		}
+		return MISS;
+	}
+
+	private void write(int slot, long visited, long entry) {
+		data[slot] = entry;
+		checks[slot] = visited ^ entry;
+	}
+
+	private int index(long visited, int last) {
+		long hash = visited * 0x9E3779B97F4A7C15L + last
+				* 0xC2B2AE3D27D4EB4FL;
+		hash ^= hash >>> 29;
+		return (int) hash & bucketMask;
+	}
+}
@@ -7,6 +7,7 @@ import system.Shared;
 public class TspUpperBound implements Shared<Double>, Serializable {
 	private static final long serialVersionUID = 16572096843503373L;
 	private Double shared;
+	private int[] tour;
 
 	/**
 	 * Construct an TspUpperBound from the Double argument.
@@ -18,6 +19,22 @@ public class TspUpperBound implements Shared<Double>, Serializable {
 		this.shared = new Double(shared);
 	}
 
+	/**
+	 * Constructs a TspUpperBound from the length of a tour which is shared
+	 * together with the tour, for tours found outside the exact search, which
+	 * does not report tours no shorter than its upper bound
+	 * 
+	 * @param shared
+	 *            The <CODE>double</CODE> value to be shared.
+	 * @param tour
+	 *            Represents the cities of the tour in the order they are
+	 *            visited
+	 */
+	public TspUpperBound(double shared, int[] tour) {
+		this(shared);
+		this.tour = tour.clone();
+	}
+
 	/**
 	 * Returns a reference to the shared double Object.
 	 * 
@@ -27,6 +44,16 @@ public class TspUpperBound implements Shared<Double>, Serializable {
 		return shared;
 	}
 
+	/**
+	 * Gets the tour the upper bound is the length of
+	 * 
+	 * @return Returns the cities of the tour in the order they are visited,
+	 *         or null if the tour is reported by the exact search instead
+	 */
+	public int[] getTour() {
+		return tour == null ? null : tour.clone();
+	}
+
 	/**
 	 * This method operationally defines the semantics of <I>newer</I>.
 	 * 